@@ -0,0 +1,53 @@
+package com.docucloud.backend.config.security.jwt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/** Validación del access token tal como la ejecuta el filtro JWT en cada request. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        jwtUtils = new JwtUtils();
+        // Los campos llegan por @Value en la app; aquí no hay contexto Spring
+        set("jwtSecret", Base64.getEncoder().encodeToString(
+                "benchmark-access-secret-at-least-256-bits!!".getBytes()));
+        set("jwtRefreshSecret", Base64.getEncoder().encodeToString(
+                "benchmark-refresh-secret-at-least-256-bits!".getBytes()));
+        set("jwtExpirationMs", 900_000L);
+        set("jwtRefreshExpirationMs", 604_800_000L);
+
+        token = jwtUtils.generateAccessTokenFromSubject("bench@docucloud.com");
+    }
+
+    private void set(String field, Object value) throws ReflectiveOperationException {
+        Field f = JwtUtils.class.getDeclaredField(field);
+        f.setAccessible(true);
+        f.set(jwtUtils, value);
+    }
+
+    @Benchmark
+    public boolean validateAccessToken() {
+        return jwtUtils.validateAccessToken(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtils.extractUsername(token, false);
+    }
+}
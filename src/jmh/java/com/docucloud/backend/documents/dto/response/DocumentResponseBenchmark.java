@@ -0,0 +1,88 @@
+package com.docucloud.backend.documents.dto.response;
+
+import com.docucloud.backend.documents.model.Category;
+import com.docucloud.backend.documents.model.Document;
+import com.docucloud.backend.documents.model.DocumentCategory;
+import com.docucloud.backend.documents.model.DocumentStatus;
+import com.docucloud.backend.documents.model.DocumentTag;
+import com.docucloud.backend.documents.repository.DocumentRow;
+import com.docucloud.backend.tags.model.Tag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo a DocumentResponse: desde la entidad (con clasificación y tags
+ * ya cargados) y desde la proyección DocumentRow de los listados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DocumentResponseBenchmark {
+
+    private Document document;
+    private DocumentRow row;
+    private List<String> tagNames;
+
+    @Setup
+    public void setUp() {
+        Category category = new Category();
+        category.setId(7L);
+        category.setName("Facturas");
+
+        document = new Document();
+        document.setId(42L);
+        document.setOwnerUserId(1L);
+        document.setFileName("factura-2024-03.pdf");
+        document.setMimeType("application/pdf");
+        document.setSizeBytes(184_322L);
+        document.setFileHash("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        document.setS3Bucket("docucloud-bench");
+        document.setS3Key("users/1/factura-2024-03.pdf");
+        document.setStatus(DocumentStatus.AVAILABLE);
+        document.setFolderId(3L);
+        document.setClassification(DocumentCategory.builder()
+                .documentId(42L)
+                .document(document)
+                .category(category)
+                .isAutomaticallyAssigned(true)
+                .confidenceScore(new BigDecimal("0.9312"))
+                .build());
+
+        Set<DocumentTag> tags = new HashSet<>();
+        for (String name : List.of("2024", "proveedor", "pagada")) {
+            Tag tag = new Tag();
+            tag.setName(name);
+            tags.add(DocumentTag.builder().document(document).tag(tag).build());
+        }
+        document.setDocumentTags(tags);
+
+        Instant now = Instant.now();
+        row = new DocumentRow(42L, "factura-2024-03.pdf", "application/pdf", 184_322L,
+                document.getFileHash(), DocumentStatus.AVAILABLE, 3L,
+                "docucloud-bench", "users/1/factura-2024-03.pdf", null,
+                7L, "Facturas", true, new BigDecimal("0.9312"), now, now, 99L);
+        tagNames = List.of("2024", "proveedor", "pagada");
+    }
+
+    @Benchmark
+    public DocumentResponse fromEntity() {
+        return DocumentResponse.from(document, true, null);
+    }
+
+    @Benchmark
+    public DocumentResponse fromRow() {
+        return DocumentResponse.from(row, tagNames, null);
+    }
+}
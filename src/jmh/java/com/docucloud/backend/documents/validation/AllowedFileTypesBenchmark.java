@@ -0,0 +1,26 @@
+package com.docucloud.backend.documents.validation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** isAllowed recorre ALLOWED_EXTENSIONS; peor caso = extensión no permitida. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AllowedFileTypesBenchmark {
+
+    @Param({"contrato.PDF", "foto-vacaciones.heic", "instalador.exe"})
+    public String fileName;
+
+    @Benchmark
+    public boolean isAllowed() {
+        return AllowedFileTypes.isAllowed(fileName);
+    }
+}
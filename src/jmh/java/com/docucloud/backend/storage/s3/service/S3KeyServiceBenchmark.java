@@ -0,0 +1,33 @@
+package com.docucloud.backend.storage.s3.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** buildDocumentKey: normalización NFD + regex de sanitizeFileName + UUID. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class S3KeyServiceBenchmark {
+
+    @Param({
+            "factura.pdf",
+            "Presentación Año Fiscal — versión final (2).pptx",
+            "Informe_de_auditoría_interna_del_departamento_de_contabilidad_y_finanzas_"
+                    + "correspondiente_al_segundo_trimestre_del_ejercicio_2024_revisado_y_aprobado.docx"
+    })
+    public String fileName;
+
+    private final S3KeyService keyService = new S3KeyService();
+
+    @Benchmark
+    public String buildDocumentKey() {
+        return keyService.buildDocumentKey(1L, fileName);
+    }
+}
@@ -0,0 +1,64 @@
+package com.docucloud.backend.storage.s3.service;
+
+import com.docucloud.backend.storage.s3.dto.PresignedUrlResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * presignGet con credenciales ficticias (la firma SigV4 es local, no hay red).
+ * cachedHit = misma key repetida; signMiss = key distinta en cada llamada
+ * sobre un cache de tamaño 0, así siempre se firma.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class S3PresignServiceBenchmark {
+
+    private static final String BUCKET = "docucloud-bench";
+    private static final String KEY = "users/1/3f1c2a9e-factura-2024-03.pdf";
+    private static final Duration DURATION = Duration.ofMinutes(10);
+
+    private S3Presigner presigner;
+    private S3PresignService cached;
+    private S3PresignService uncached;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        presigner = S3Presigner.builder()
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(
+                        AwsBasicCredentials.create("AKIABENCHMARK000000", "benchmark-secret-key")))
+                .build();
+        cached = new S3PresignService(presigner, 60, 20_000);
+        uncached = new S3PresignService(presigner, 60, 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        presigner.close();
+    }
+
+    @Benchmark
+    public PresignedUrlResponse cachedHit() {
+        return cached.presignGet(BUCKET, KEY, DURATION);
+    }
+
+    @Benchmark
+    public PresignedUrlResponse signMiss() {
+        return uncached.presignGet(BUCKET, KEY + sequence++, DURATION);
+    }
+}
@@ -3,10 +3,12 @@ package com.docucloud.backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.TimeZone;
 
 @EnableAsync
+@EnableScheduling
 @SpringBootApplication
 public class BackendApplication {
 
@@ -15,7 +15,14 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Aspect
@@ -79,34 +86,18 @@ public class BusinessAuditAspect {
             if (arg instanceof Boolean)         continue;
 
             if (arg instanceof String s && !s.isBlank() && s.length() < 200) {
-                if (!s.contains("@") && !s.matches("[0-9a-f-]{36}")) {
+                if (s.indexOf('@') < 0 && !looksLikeUuid(s)) {
                     return s;
                 }
             }
 
-            // Primero getters de clases normales, luego accessors de Java records
-            String[] getterNames = {
-                    "getFileName",   // clase normal
-                    "getName",       // clase normal
-                    "getTitle",      // clase normal
-                    "getNewName",    // clase normal
-                    "getQuery",      // clase normal
-                    "fileName",      // ✅ record accessor
-                    "name",          // ✅ record accessor — CreateCategoryRequest, CreateTagRequest, etc.
-                    "title",         // ✅ record accessor
-                    "newName",       // ✅ record accessor
-                    "query",         // ✅ record accessor
-            };
-
-            for (String getter : getterNames) {
+            for (MethodHandle getter : NAME_GETTERS.get(arg.getClass())) {
                 try {
-                    Method m = arg.getClass().getMethod(getter);
-                    Object value = m.invoke(arg);
+                    Object value = (Object) getter.invokeExact(arg);
                     if (value instanceof String s && !s.isBlank()) {
                         return s;
                     }
-                } catch (NoSuchMethodException ignored) {
-                } catch (Exception ignored) {
+                } catch (Throwable ignored) {
                 }
             }
         }
@@ -114,15 +105,90 @@ public class BusinessAuditAspect {
     }
 
     private Long extractIdFromResult(Object result) {
+        MethodHandle getId = ID_GETTERS.get(result.getClass());
+        if (getId == null) return null;
         try {
-            Method getId = result.getClass().getMethod("getId");
-            Object value = getId.invoke(result);
+            Object value = (Object) getId.invokeExact(result);
             if (value instanceof Long l)    return l;
             if (value instanceof Integer i) return i.longValue();
-        } catch (Exception ignored) {}
+        } catch (Throwable ignored) {}
         return null;
     }
 
+    // ─── Extractores resueltos una vez por clase ──────────────────────────────
+
+    // Primero getters de clases normales, luego accessors de Java records
+    private static final String[] NAME_GETTER_NAMES = {
+            "getFileName",   // clase normal
+            "getName",       // clase normal
+            "getTitle",      // clase normal
+            "getNewName",    // clase normal
+            "getQuery",      // clase normal
+            "fileName",      // ✅ record accessor
+            "name",          // ✅ record accessor — CreateCategoryRequest, CreateTagRequest, etc.
+            "title",         // ✅ record accessor
+            "newName",       // ✅ record accessor
+            "query",         // ✅ record accessor
+    };
+
+    private static final MethodType OBJECT_GETTER = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * Getters de nombre que existen en cada clase de argumento, en orden de
+     * prioridad. Se resuelven con getMethods() la primera vez (sin lanzar
+     * NoSuchMethodException por cada nombre que falta) y se guardan como
+     * MethodHandle; las llamadas siguientes no usan reflexión.
+     */
+    private static final ClassValue<List<MethodHandle>> NAME_GETTERS = new ClassValue<>() {
+        @Override
+        protected List<MethodHandle> computeValue(Class<?> type) {
+            Map<String, Method> candidates = new HashMap<>();
+            for (Method m : type.getMethods()) {
+                if (m.getParameterCount() == 0 && m.getReturnType().isAssignableFrom(String.class)) {
+                    candidates.put(m.getName(), m);
+                }
+            }
+            List<MethodHandle> getters = new ArrayList<>();
+            for (String name : NAME_GETTER_NAMES) {
+                MethodHandle h = toHandle(candidates.get(name));
+                if (h != null) getters.add(h);
+            }
+            return List.copyOf(getters);
+        }
+    };
+
+    private static final ClassValue<MethodHandle> ID_GETTERS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            for (Method m : type.getMethods()) {
+                if (m.getName().equals("getId") && m.getParameterCount() == 0) {
+                    return toHandle(m);
+                }
+            }
+            return null;
+        }
+    };
+
+    // null si no existe o no es accesible (p. ej. clase no pública): se ignora, como antes
+    private static MethodHandle toHandle(Method m) {
+        if (m == null) return null;
+        try {
+            return MethodHandles.publicLookup().unreflect(m).asType(OBJECT_GETTER);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    // Equivale a s.matches("[0-9a-f-]{36}") sin compilar la regex en cada llamada
+    private static boolean looksLikeUuid(String s) {
+        if (s.length() != 36) return false;
+        for (int i = 0; i < 36; i++) {
+            char c = s.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || c == '-')) return false;
+        }
+        return true;
+    }
+
     private Long resolveResourceId(ProceedingJoinPoint pjp, int index) {
         if (index < 0) return null;
         Object[] args = pjp.getArgs();
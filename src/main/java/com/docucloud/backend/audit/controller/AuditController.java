@@ -1,25 +1,44 @@
 package com.docucloud.backend.audit.controller;
 
+import com.docucloud.backend.audit.model.ActivityDailyCount;
 import com.docucloud.backend.audit.model.ActivityHistory;
+import com.docucloud.backend.audit.service.AuditCounterService;
+import com.docucloud.backend.audit.service.AuditExportService;
 import com.docucloud.backend.audit.service.AuditService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/admin/audit")
 public class AuditController {
 
     private final AuditService auditService;
+    private final AuditExportService exportService;
 
-    public AuditController(AuditService auditService) {
+    public AuditController(AuditService auditService, AuditExportService exportService) {
         this.auditService = auditService;
+        this.exportService = exportService;
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -40,10 +59,81 @@ public class AuditController {
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Long>> getStats() {
+    public ResponseEntity<Map<String, Long>> getStats(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        AuditCounterService.Stats counters = auditService.getStats(from, to);
         Map<String, Long> stats = new HashMap<>();
-        stats.put("totalFailed", auditService.countFailed());
-        stats.put("totalUniqueUsers", auditService.countUniqueUsers());
+        stats.put("totalFailed", counters.failedEvents());
+        // Aproximado (HyperLogLog, ~1.6% de error típico)
+        stats.put("totalUniqueUsers", counters.uniqueUsers());
         return ResponseEntity.ok(stats);
     }
+
+    // Eventos por día/acción/tipo/éxito desde el rollup (no toca activity_history)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/daily")
+    public ResponseEntity<List<ActivityDailyCount>> getDaily(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        return ResponseEntity.ok(auditService.getDailyCounts(from, to));
+    }
+
+    // Exportación completa con los mismos filtros que /logs, sin paginar:
+    // cursor en BD escrito fila a fila en la respuesta (memoria constante)
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String resourceType,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Boolean success,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            NativeWebRequest webRequest) {
+
+        AuditExportService.Format fmt;
+        try {
+            fmt = AuditExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato no soportado: " + format);
+        }
+
+        // Con la respuesta ya empezada un error no llegaría como 400: se valida antes
+        try {
+            if (from != null && !from.isBlank()) LocalDate.parse(from);
+            if (to != null && !to.isBlank()) LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fecha inválida, usa yyyy-MM-dd");
+        }
+
+        String fileName = "audit-" + LocalDate.now(ZoneOffset.UTC) + "." + fmt.name().toLowerCase(Locale.ROOT)
+                + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : fmt == AuditExportService.Format.CSV ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson");
+
+        // 429 antes de poner las cabeceras del adjunto. El hueco se libera al
+        // terminar el cuerpo o, si este no llega a ejecutarse, al completarse la
+        // petición asíncrona (timeout, error, cliente desconectado)
+        AuditExportService.Slot slot = exportService.reserve();
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(slot,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        slot.close();
+                    }
+                });
+        StreamingResponseBody body = out -> {
+            try (slot) {
+                exportService.export(userId, action, resourceType, from, to, success, fmt, gzip, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.docucloud.backend.audit.model;
+
+import java.time.LocalDate;
+
+/** Fila de activity_history_daily: eventos por día (UTC), acción, tipo y éxito. */
+public record ActivityDailyCount(
+        LocalDate day,
+        String action,
+        String resourceType,
+        boolean successful,
+        long events
+) {}
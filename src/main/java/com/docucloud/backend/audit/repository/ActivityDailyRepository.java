@@ -0,0 +1,60 @@
+package com.docucloud.backend.audit.repository;
+
+import com.docucloud.backend.audit.model.ActivityDailyCount;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Rollup diario de activity_history (tabla activity_history_daily).
+ * Va por JDBC: es una tabla de agregados sin entidad JPA.
+ */
+@Repository
+public class ActivityDailyRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ActivityDailyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Recalcula los días [from, to) desde activity_history. Idempotente: se
+     * puede repetir sobre días ya agregados (p. ej. hoy, que sigue abierto).
+     */
+    public int rollup(LocalDate from, LocalDate to) {
+        return jdbcTemplate.update("""
+                INSERT INTO activity_history_daily (day, action, resource_type, is_successful, events)
+                SELECT (created_at AT TIME ZONE 'UTC')::DATE, action, COALESCE(resource_type, ''),
+                       COALESCE(is_successful, TRUE), COUNT(*)
+                FROM activity_history
+                WHERE created_at >= ? AND created_at < ?
+                GROUP BY 1, 2, 3, 4
+                ON CONFLICT (day, action, resource_type, is_successful)
+                DO UPDATE SET events = EXCLUDED.events
+                """,
+                Timestamp.from(from.atStartOfDay(ZoneOffset.UTC).toInstant()),
+                Timestamp.from(to.atStartOfDay(ZoneOffset.UTC).toInstant()));
+    }
+
+    public List<ActivityDailyCount> findBetween(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT day, action, resource_type, is_successful, events
+                FROM activity_history_daily
+                WHERE day BETWEEN ? AND ?
+                ORDER BY day, action, resource_type, is_successful
+                """,
+                (rs, i) -> new ActivityDailyCount(
+                        rs.getDate("day").toLocalDate(),
+                        rs.getString("action"),
+                        rs.getString("resource_type"),
+                        rs.getBoolean("is_successful"),
+                        rs.getLong("events")),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+}
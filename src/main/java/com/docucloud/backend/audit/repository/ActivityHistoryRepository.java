@@ -3,7 +3,9 @@ package com.docucloud.backend.audit.repository;
 import com.docucloud.backend.audit.model.ActivityHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -11,11 +13,9 @@ public interface ActivityHistoryRepository
         extends JpaRepository<ActivityHistory, Integer>,
         JpaSpecificationExecutor<ActivityHistory> {
 
-    long countByIsSuccessfulFalse();
-
-    @Query("SELECT COUNT(DISTINCT a.userId) FROM ActivityHistory a WHERE a.userId IS NOT NULL")
-    long countDistinctUserId();
-
-    // userId es Long directo en ActivityHistory (no relación)
-    void deleteByUserId(Long userId);
+    // userId es Long directo en ActivityHistory (no relación).
+    // DELETE en bloque: el derivado cargaba cada fila para borrarla una a una
+    @Modifying
+    @Query("DELETE FROM ActivityHistory a WHERE a.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
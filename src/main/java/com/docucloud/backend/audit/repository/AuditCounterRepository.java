@@ -0,0 +1,125 @@
+package com.docucloud.backend.audit.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Acceso JDBC a audit_daily_counters y a las consultas exactas sobre
+ * activity_history con las que se reconstruye un día.
+ */
+@Repository
+public class AuditCounterRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditCounterRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record DayRow(LocalDate day, long totalEvents, long failedEvents, byte[] userHll) {}
+
+    public record DayTotals(long totalEvents, long failedEvents) {}
+
+    /** Crea la fila del día si no existe y la bloquea; devuelve su sketch actual. */
+    public byte[] lockDay(LocalDate day, byte[] emptyHll) {
+        jdbcTemplate.update("""
+                INSERT INTO audit_daily_counters (day, user_hll) VALUES (?, ?)
+                ON CONFLICT (day) DO NOTHING
+                """, Date.valueOf(day), emptyHll);
+        return jdbcTemplate.queryForObject(
+                "SELECT user_hll FROM audit_daily_counters WHERE day = ? FOR UPDATE",
+                byte[].class, Date.valueOf(day));
+    }
+
+    public void addToDay(LocalDate day, long total, long failed, byte[] userHll) {
+        jdbcTemplate.update("""
+                UPDATE audit_daily_counters
+                SET total_events = total_events + ?, failed_events = failed_events + ?,
+                    user_hll = ?, updated_at = now()
+                WHERE day = ?
+                """, total, failed, userHll, Date.valueOf(day));
+    }
+
+    public void replaceDay(LocalDate day, long total, long failed, byte[] userHll) {
+        jdbcTemplate.update("""
+                INSERT INTO audit_daily_counters (day, total_events, failed_events, user_hll)
+                VALUES (?, ?, ?, ?)
+                ON CONFLICT (day) DO UPDATE
+                SET total_events = EXCLUDED.total_events, failed_events = EXCLUDED.failed_events,
+                    user_hll = EXCLUDED.user_hll, updated_at = now()
+                """, Date.valueOf(day), total, failed, userHll);
+    }
+
+    /** Días con eventos; null en from/to = sin límite. */
+    public List<DayRow> findBetween(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT day, total_events, failed_events, user_hll
+                FROM audit_daily_counters
+                WHERE (CAST(? AS DATE) IS NULL OR day >= ?)
+                  AND (CAST(? AS DATE) IS NULL OR day <= ?)
+                """,
+                (rs, i) -> new DayRow(
+                        rs.getDate("day").toLocalDate(),
+                        rs.getLong("total_events"),
+                        rs.getLong("failed_events"),
+                        rs.getBytes("user_hll")),
+                date(from), date(from), date(to), date(to));
+    }
+
+    /** Días presentes en el rollup diario que aún no tienen contadores. */
+    public List<LocalDate> findDaysWithoutCounters() {
+        return jdbcTemplate.queryForList("""
+                SELECT DISTINCT d.day
+                FROM activity_history_daily d
+                LEFT JOIN audit_daily_counters c ON c.day = d.day
+                WHERE c.day IS NULL
+                ORDER BY d.day
+                """, Date.class).stream().map(Date::toLocalDate).toList();
+    }
+
+    // ─── Recuento exacto de un día (reconstrucción) ───────────────────────────
+
+    /** Días (UTC) en los que el usuario tiene eventos; se rehacen tras borrar su historial. */
+    public List<LocalDate> findDaysOfUser(Long userId) {
+        return jdbcTemplate.queryForList("""
+                SELECT DISTINCT (created_at AT TIME ZONE 'UTC')::DATE
+                FROM activity_history
+                WHERE user_id = ?
+                """, Date.class, userId).stream().map(Date::toLocalDate).toList();
+    }
+
+    public DayTotals countDay(LocalDate day) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*), COUNT(*) FILTER (WHERE is_successful = FALSE)
+                FROM activity_history
+                WHERE created_at >= ? AND created_at < ?
+                """,
+                (rs, i) -> new DayTotals(rs.getLong(1), rs.getLong(2)),
+                start(day), start(day.plusDays(1)));
+    }
+
+    public void forEachUserOfDay(LocalDate day, LongConsumer consumer) {
+        jdbcTemplate.query("""
+                SELECT DISTINCT user_id
+                FROM activity_history
+                WHERE created_at >= ? AND created_at < ? AND user_id IS NOT NULL
+                """,
+                rs -> { consumer.accept(rs.getLong(1)); },
+                start(day), start(day.plusDays(1)));
+    }
+
+    private static Timestamp start(LocalDate day) {
+        return Timestamp.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    private static Date date(LocalDate day) {
+        return day != null ? Date.valueOf(day) : null;
+    }
+}
@@ -0,0 +1,283 @@
+package com.docucloud.backend.audit.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportación de activity_history en CSV o NDJSON (opcionalmente gzip) sin
+ * paginar: un único SELECT con cursor de servidor ({@code fetch-size} filas
+ * por viaje) escrito fila a fila en la respuesta. La memoria es constante
+ * sea cual sea el rango; no se hidratan entidades y details (jsonb) se
+ * copia como texto.
+ *
+ * Postgres solo usa el cursor con autocommit desactivado, de ahí la
+ * transacción de solo lectura alrededor de la consulta. Como cada
+ * exportación retiene una conexión mientras dura, se limitan las
+ * simultáneas ({@code max-concurrent}); el resto recibe 429.
+ */
+@Slf4j
+@Service
+public class AuditExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String[] COLUMNS = {
+            "id", "created_at", "user_id", "action", "resource_type", "resource_id",
+            "is_successful", "ip_address", "user_agent", "details"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+    private final Semaphore slots;
+
+    public AuditExportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${app.audit.export.fetch-size:1000}") int fetchSize,
+            @Value("${app.audit.export.max-concurrent:2}") int maxConcurrent) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(Math.max(1, fetchSize));
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.slots = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * Reserva un hueco de exportación; 429 si ya hay {@code max-concurrent} en
+     * curso. Se pide antes de empezar la respuesta para que el error llegue
+     * como estado HTTP y no como un adjunto .csv. El hueco se libera una sola
+     * vez aunque {@link Slot#close()} se llame desde varios sitios (fin del
+     * cuerpo, timeout o error de la petición asíncrona).
+     */
+    public Slot reserve() {
+        if (!slots.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Hay demasiadas exportaciones en curso, inténtalo más tarde");
+        }
+        return new Slot();
+    }
+
+    public final class Slot implements AutoCloseable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot() {
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) slots.release();
+        }
+    }
+
+    /** Mismos filtros que el listado admin (ActivityHistorySpecification); fechas yyyy-MM-dd. */
+    public void export(Long userId, String action, String resourceType, String fromDate, String toDate,
+                       Boolean success, Format format, boolean gzip, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, created_at, user_id, action, resource_type, resource_id,
+                       is_successful, host(ip_address) AS ip_address, user_agent, details::text AS details
+                FROM activity_history
+                WHERE 1 = 1
+                """);
+        List<Object> params = new ArrayList<>();
+        if (userId != null) {
+            sql.append(" AND user_id = ?");
+            params.add(userId);
+        }
+        if (action != null && !action.isBlank()) {
+            sql.append(" AND UPPER(action) LIKE ?");
+            params.add("%" + action.toUpperCase(Locale.ROOT) + "%");
+        }
+        if (resourceType != null && !resourceType.isBlank()) {
+            sql.append(" AND UPPER(resource_type) = ?");
+            params.add(resourceType.toUpperCase(Locale.ROOT));
+        }
+        Instant from = AuditService.parseFromDate(fromDate);
+        if (from != null) {
+            sql.append(" AND created_at >= ?");
+            params.add(Timestamp.from(from));
+        }
+        Instant to = AuditService.parseToDate(toDate);
+        if (to != null) {
+            sql.append(" AND created_at <= ?");
+            params.add(Timestamp.from(to));
+        }
+        if (success != null) {
+            sql.append(" AND is_successful = ?");
+            params.add(success);
+        }
+        sql.append(" ORDER BY created_at, id");
+
+        OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rows = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        long started = System.currentTimeMillis();
+        long[] count = {0};
+        try {
+            rows.start();
+            readOnlyTx.executeWithoutResult(status ->
+                    jdbcTemplate.query(sql.toString(), rs -> {
+                        try {
+                            rows.write(rs);
+                            count[0]++;
+                        } catch (IOException e) {
+                            // Cliente desconectado: se corta la consulta
+                            throw new UncheckedIOException(e);
+                        }
+                    }, params.toArray()));
+            rows.finish();
+            writer.flush();
+            if (target instanceof GZIPOutputStream gz) gz.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("📤 Exportación de auditoría - formato={} gzip={} filas={} ms={}",
+                format, gzip, count[0], System.currentTimeMillis() - started);
+    }
+
+    // ─── Formatos ─────────────────────────────────────────────────────────────
+
+    private interface RowWriter {
+        void start() throws IOException;
+        void write(ResultSet rs) throws IOException, SQLException;
+        void finish() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer out;
+
+        CsvRowWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void start() throws IOException {
+            out.write(String.join(",", COLUMNS));
+            out.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) out.write(',');
+                Object value = i == 1 ? instant(rs.getTimestamp(2)) : rs.getObject(i + 1);
+                if (value != null) field(value.toString());
+            }
+            out.write("\r\n");
+        }
+
+        // RFC 4180: comillas solo si hacen falta, duplicando las internas
+        private void field(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') out.write('"');
+                out.write(c);
+            }
+            out.write('"');
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer out;
+        private JsonGenerator json;
+
+        NdjsonRowWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void start() throws IOException {
+            json = objectMapper.getFactory().createGenerator(out);
+            // flush() del generador vuelca al Writer sin forzar el flush de la respuesta
+            json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // Un objeto por línea: sin separador entre valores raíz
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws IOException, SQLException {
+            json.writeStartObject();
+            json.writeNumberField("id", rs.getLong("id"));
+            Instant createdAt = instant(rs.getTimestamp("created_at"));
+            json.writeStringField("created_at", createdAt != null ? createdAt.toString() : null);
+            writeLong("user_id", rs.getLong("user_id"), rs.wasNull());
+            json.writeStringField("action", rs.getString("action"));
+            json.writeStringField("resource_type", rs.getString("resource_type"));
+            writeLong("resource_id", rs.getLong("resource_id"), rs.wasNull());
+            boolean successful = rs.getBoolean("is_successful");
+            if (rs.wasNull()) json.writeNullField("is_successful");
+            else json.writeBooleanField("is_successful", successful);
+            json.writeStringField("ip_address", rs.getString("ip_address"));
+            json.writeStringField("user_agent", rs.getString("user_agent"));
+            // jsonb ya es JSON válido: se copia sin parsear
+            String details = rs.getString("details");
+            json.writeFieldName("details");
+            if (details != null) json.writeRawValue(details);
+            else json.writeNull();
+            json.writeEndObject();
+            json.flush();
+            out.write('\n');
+        }
+
+        private void writeLong(String field, long value, boolean isNull) throws IOException {
+            if (isNull) json.writeNullField(field);
+            else json.writeNumberField(field, value);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+    }
+
+    private static Instant instant(Timestamp ts) {
+        return ts != null ? ts.toInstant() : null;
+    }
+}
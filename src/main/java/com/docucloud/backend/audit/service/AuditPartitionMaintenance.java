@@ -0,0 +1,120 @@
+package com.docucloud.backend.audit.service;
+
+import com.docucloud.backend.audit.repository.ActivityDailyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mantenimiento diario de activity_history (particionada por mes, ver
+ * migración 007):
+ *
+ * 1. Crea las particiones de los próximos {@code months-ahead} meses; sin
+ *    partición el INSERT de AuditWriter fallaría.
+ * 2. Recalcula el rollup diario de los últimos {@code days-back} días y
+ *    reconstruye los contadores de ayer (AuditCounterService).
+ * 3. Retención: borra con DROP TABLE las particiones anteriores a
+ *    {@code retention-months} meses (0 = conservar todo). Antes de borrar un
+ *    mes se asegura su rollup, que se conserva.
+ */
+@Slf4j
+@Component
+public class AuditPartitionMaintenance {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("activity_history_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ActivityDailyRepository dailyRepository;
+    private final AuditCounterService counterService;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final int rollupDaysBack;
+
+    public AuditPartitionMaintenance(
+            JdbcTemplate jdbcTemplate,
+            ActivityDailyRepository dailyRepository,
+            AuditCounterService counterService,
+            @Value("${app.audit.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${app.audit.retention-months:0}") int retentionMonths,
+            @Value("${app.audit.rollup.days-back:2}") int rollupDaysBack) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dailyRepository = dailyRepository;
+        this.counterService = counterService;
+        this.monthsAhead = Math.max(1, monthsAhead);
+        this.retentionMonths = Math.max(0, retentionMonths);
+        this.rollupDaysBack = Math.max(1, rollupDaysBack);
+    }
+
+    // Al arrancar también: si el job no corrió (app parada) el mes nuevo necesita partición
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            ensurePartitions();
+        } catch (Exception e) {
+            log.error("❌ No se pudieron crear las particiones de activity_history", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.audit.maintenance-cron:0 15 0 * * *}", zone = "UTC")
+    public void runDaily() {
+        try {
+            ensurePartitions();
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            int rows = dailyRepository.rollup(today.minusDays(rollupDaysBack), today.plusDays(1));
+            counterService.rebuild(today.minusDays(1));
+            int dropped = applyRetention();
+            log.info("🗂️ Mantenimiento de auditoría - rollupRows={} particionesBorradas={}", rows, dropped);
+        } catch (Exception e) {
+            log.error("❌ Error en el mantenimiento de activity_history", e);
+        }
+    }
+
+    void ensurePartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= monthsAhead; i++) {
+            jdbcTemplate.queryForObject("SELECT ensure_activity_history_partition(?)",
+                    String.class, current.plusMonths(i).atDay(1));
+        }
+    }
+
+    int applyRetention() {
+        if (retentionMonths == 0) return 0;
+        YearMonth cutoff = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths);
+
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'activity_history'
+                """, String.class);
+
+        int dropped = 0;
+        for (String name : partitions) {
+            Matcher m = PARTITION_NAME.matcher(name);
+            if (!m.matches()) continue;
+            YearMonth month = YearMonth.parse(m.group(1), SUFFIX);
+            if (!month.isBefore(cutoff)) continue;
+
+            dailyRepository.rollup(month.atDay(1), month.plusMonths(1).atDay(1));
+            // El nombre viene validado por la regex: no hay riesgo de inyección
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+            log.info("🗑️ Partición de auditoría eliminada por retención: {}", name);
+            dropped++;
+        }
+        return dropped;
+    }
+}
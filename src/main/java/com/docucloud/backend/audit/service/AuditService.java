@@ -1,61 +1,61 @@
 package com.docucloud.backend.audit.service;
 
+import com.docucloud.backend.audit.model.ActivityDailyCount;
 import com.docucloud.backend.audit.model.ActivityHistory;
+import com.docucloud.backend.audit.repository.ActivityDailyRepository;
 import com.docucloud.backend.audit.repository.ActivityHistoryRepository;
 import com.docucloud.backend.audit.specification.ActivityHistorySpecification;
 import com.fasterxml.jackson.databind.JsonNode;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.net.InetAddress;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.List;
 
-@Slf4j
 @Service
 public class AuditService {
 
     private final ActivityHistoryRepository repository;
-
-    public AuditService(ActivityHistoryRepository repository) {
+    private final ActivityDailyRepository dailyRepository;
+    private final AuditWriter auditWriter;
+    private final AuditCounterService counterService;
+
+    public AuditService(ActivityHistoryRepository repository,
+                        ActivityDailyRepository dailyRepository,
+                        AuditWriter auditWriter,
+                        AuditCounterService counterService) {
         this.repository = repository;
+        this.dailyRepository = dailyRepository;
+        this.auditWriter = auditWriter;
+        this.counterService = counterService;
     }
 
-    // ─── Logs asincrónos ──────────────────────────────────────────────────────
+    // ─── Logs (buffer + escritura en lote, ver AuditWriter) ──────────────────
 
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logBusiness(Long userId, String action, String resourceType,
                             Long resourceId, Boolean success, JsonNode details) {
-        try {
-            logHttp(userId, action, resourceType, resourceId, success, null, null, details);
-        } catch (Exception e) {
-            log.error("[Audit] Error guardando log negocio", e);
-        }
+        logHttp(userId, action, resourceType, resourceId, success, null, null, details);
     }
 
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logHttp(Long userId, String action, String resourceType,
                         Long resourceId, Boolean success, String ipAddress,
                         String userAgent, JsonNode details) {
-        try {
-            InetAddress inet = toInet(ipAddress);
-            ActivityHistory entry = new ActivityHistory(
-                    userId, action, resourceType, resourceId, success, inet
-            );
-            entry.setUserAgent(userAgent);
-            entry.setDetails(details);
-            repository.save(entry);
-        } catch (Exception e) {
-            log.error("[Audit] Error guardando log HTTP", e);
-        }
+        auditWriter.enqueue(AuditWriter.AuditEvent.of(
+                userId, action, resourceType, resourceId, success, ipAddress, userAgent, details));
+    }
+
+    // ─── Borrado ──────────────────────────────────────────────────────────────
+
+    /** Borra el historial de un usuario y rehace los contadores de los días afectados. */
+    @Transactional
+    public void deleteLogsForUser(Long userId) {
+        List<LocalDate> days = counterService.daysOfUser(userId);
+        repository.deleteByUserId(userId);
+        counterService.rebuildAfterCommit(days);
     }
 
     // ─── Consultas ────────────────────────────────────────────────────────────
@@ -94,35 +94,32 @@ public class AuditService {
         );
     }
 
-    @Transactional(readOnly = true)
-    public long countFailed() {
-        return repository.countByIsSuccessfulFalse();
+    /** Rollup diario (activity_history_daily); por defecto los últimos 30 días. */
+    public List<ActivityDailyCount> getDailyCounts(String fromDate, String toDate) {
+        LocalDate to   = (toDate == null || toDate.isBlank()) ? LocalDate.now(ZoneOffset.UTC) : LocalDate.parse(toDate);
+        LocalDate from = (fromDate == null || fromDate.isBlank()) ? to.minusDays(29) : LocalDate.parse(fromDate);
+        return dailyRepository.findBetween(from, to);
     }
 
-    @Transactional(readOnly = true)
-    public long countUniqueUsers() {
-        return repository.countDistinctUserId();
+    /**
+     * Fallidos y usuarios únicos del rango (días UTC, ambos opcionales) desde
+     * audit_daily_counters. Usuarios únicos es aproximado (~1.6%).
+     */
+    public AuditCounterService.Stats getStats(String fromDate, String toDate) {
+        LocalDate from = (fromDate == null || fromDate.isBlank()) ? null : LocalDate.parse(fromDate);
+        LocalDate to   = (toDate == null || toDate.isBlank())     ? null : LocalDate.parse(toDate);
+        return counterService.stats(from, to);
     }
 
     // ─── Helpers ──────────────────────────────────────────────────────────────
 
-    private Instant parseFromDate(String date) {
+    static Instant parseFromDate(String date) {
         if (date == null || date.isBlank()) return null;
         return LocalDate.parse(date).atStartOfDay(ZoneOffset.UTC).toInstant();
     }
 
-    private Instant parseToDate(String date) {
+    static Instant parseToDate(String date) {
         if (date == null || date.isBlank()) return null;
         return LocalDate.parse(date).atTime(23, 59, 59).atOffset(ZoneOffset.UTC).toInstant();
     }
-
-    private InetAddress toInet(String ipAddress) {
-        try {
-            if (ipAddress == null || ipAddress.isBlank()) return null;
-            return InetAddress.getByName(ipAddress);
-        } catch (Exception e) {
-            log.warn("[Audit] IP inválida para inet: {}", ipAddress);
-            return null;
-        }
-    }
 }
\ No newline at end of file
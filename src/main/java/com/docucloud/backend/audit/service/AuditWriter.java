@@ -0,0 +1,291 @@
+package com.docucloud.backend.audit.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritura de activity_history en lotes. Los eventos van a un buffer
+ * circular acotado en memoria y un único hilo los vuelca cada
+ * {@code flush-ms} o cada {@code batch-size} eventos con un solo
+ * INSERT ... VALUES (...), (...), ... por JDBC.
+ *
+ * Con ids IDENTITY Hibernate no puede agrupar inserts: antes cada evento
+ * era una transacción REQUIRES_NEW y un round trip propio.
+ *
+ * Desbordamiento: si el buffer está lleno el productor espera como mucho
+ * {@code overflow-wait-ms}; pasado ese tiempo el evento se descarta y se
+ * cuenta en audit.events{result=dropped}. La auditoría nunca bloquea una
+ * petición más allá de ese margen.
+ *
+ * Si un INSERT multi-fila falla se reintenta fila a fila, así un evento
+ * inválido no arrastra al resto del lote.
+ *
+ * Cada evento escrito se suma a los contadores diarios (AuditCounterService).
+ *
+ * Métricas: audit.buffer.size, audit.buffer.lag (segundos que lleva
+ * esperando el evento más antiguo), audit.flush (duración por lote) y
+ * audit.events{result=written|dropped|failed}.
+ */
+@Slf4j
+@Component
+public class AuditWriter implements SmartLifecycle {
+
+    private static final String INSERT_PREFIX = """
+            INSERT INTO activity_history (user_id, action, resource_type, resource_id, details,
+                ip_address, user_agent, is_successful, detailed_timestamp, created_at)
+            VALUES """;
+    private static final String ROW = "(?, ?, ?, ?, CAST(? AS jsonb), CAST(? AS inet), ?, ?, ?, ?)";
+    private static final int COLUMNS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditCounterService counters;
+    private final int batchSize;
+    private final long flushMs;
+    private final long overflowWaitMs;
+    private final BlockingQueue<AuditEvent> buffer;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTimer;
+    private final AtomicLong lastDropWarning = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditWriter(
+            JdbcTemplate jdbcTemplate,
+            AuditCounterService counters,
+            MeterRegistry meterRegistry,
+            @Value("${app.audit.buffer.capacity:10000}") int capacity,
+            @Value("${app.audit.buffer.batch-size:200}") int batchSize,
+            @Value("${app.audit.buffer.flush-ms:200}") long flushMs,
+            @Value("${app.audit.buffer.overflow-wait-ms:50}") long overflowWaitMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.counters = counters;
+        // Postgres admite como mucho 32767 parámetros por sentencia
+        this.batchSize = Math.max(1, Math.min(batchSize, Short.MAX_VALUE / COLUMNS));
+        this.flushMs = Math.max(1, flushMs);
+        this.overflowWaitMs = Math.max(0, overflowWaitMs);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+
+        Gauge.builder("audit.buffer.size", buffer, BlockingQueue::size)
+                .description("Eventos de auditoría pendientes de escribir")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.lag", this, AuditWriter::lagSeconds)
+                .description("Segundos que lleva en el buffer el evento más antiguo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.flush")
+                .description("Duración de cada volcado de auditoría")
+                .register(meterRegistry);
+        this.written = events(meterRegistry, "written");
+        this.dropped = events(meterRegistry, "dropped");
+        this.failed = events(meterRegistry, "failed");
+    }
+
+    private static Counter events(MeterRegistry registry, String result) {
+        return Counter.builder("audit.events").tag("result", result).register(registry);
+    }
+
+    /** Encola un evento; nunca lanza. */
+    public void enqueue(AuditEvent event) {
+        if (!running) {
+            // Antes de arrancar o tras el cierre no hay hilo escritor: se escribe en línea
+            flush(List.of(event));
+            return;
+        }
+        try {
+            if (buffer.offer(event) || buffer.offer(event, overflowWaitMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        long now = System.currentTimeMillis();
+        long last = lastDropWarning.get();
+        if (now - last > 10_000 && lastDropWarning.compareAndSet(last, now)) {
+            log.warn("⚠️ Buffer de auditoría lleno ({}), descartando eventos", buffer.size());
+        }
+    }
+
+    private double lagSeconds() {
+        AuditEvent oldest = buffer.peek();
+        return oldest == null ? 0 : (System.nanoTime() - oldest.enqueuedNanos()) / 1e9;
+    }
+
+    // ─── Hilo escritor ────────────────────────────────────────────────────────
+
+    private void runLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AuditEvent first = buffer.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                long deadline = first.enqueuedNanos() + TimeUnit.MILLISECONDS.toNanos(flushMs);
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running) break;
+                    AuditEvent next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("[Audit] Error inesperado en el escritor de auditoría", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        if (batch.isEmpty()) return;
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.update(insertSql(batch.size()), params(batch));
+            written.increment(batch.size());
+            batch.forEach(this::count);
+        } catch (Exception e) {
+            log.warn("[Audit] Falló el insert de {} eventos, reintentando fila a fila: {}",
+                    batch.size(), e.getMessage());
+            for (AuditEvent event : batch) {
+                try {
+                    jdbcTemplate.update(insertSql(1), params(List.of(event)));
+                    written.increment();
+                    count(event);
+                } catch (Exception rowError) {
+                    failed.increment();
+                    log.error("[Audit] Error guardando log action={}: {}", event.action(), rowError.getMessage());
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void count(AuditEvent event) {
+        counters.record(LocalDate.ofInstant(event.occurredAt(), ZoneOffset.UTC), event.userId(), event.success());
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(ROW);
+        }
+        return sql.toString();
+    }
+
+    private static Object[] params(List<AuditEvent> batch) {
+        Object[] args = new Object[batch.size() * COLUMNS];
+        int i = 0;
+        for (AuditEvent e : batch) {
+            Timestamp at = Timestamp.from(e.occurredAt());
+            args[i++] = e.userId();
+            args[i++] = e.action();
+            args[i++] = e.resourceType();
+            args[i++] = e.resourceId();
+            args[i++] = e.details() != null ? e.details().toString() : null;
+            args[i++] = toInet(e.ipAddress());
+            args[i++] = e.userAgent();
+            args[i++] = e.success();
+            args[i++] = at;
+            args[i++] = at;
+        }
+        return args;
+    }
+
+    private static String toInet(String ipAddress) {
+        try {
+            if (ipAddress == null || ipAddress.isBlank()) return null;
+            return InetAddress.getByName(ipAddress).getHostAddress();
+        } catch (Exception e) {
+            log.warn("[Audit] IP inválida para inet: {}", ipAddress);
+            return null;
+        }
+    }
+
+    // ─── Ciclo de vida ────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Al parar se vuelca lo que quede en el buffer
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Fase mínima: se para lo último, después del apagado ordenado del servidor web
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE;
+    }
+
+    // ─── Evento ───────────────────────────────────────────────────────────────
+
+    public record AuditEvent(
+            Long userId,
+            String action,
+            String resourceType,
+            Long resourceId,
+            Boolean success,
+            String ipAddress,
+            String userAgent,
+            JsonNode details,
+            Instant occurredAt,
+            long enqueuedNanos
+    ) {
+        public static AuditEvent of(Long userId, String action, String resourceType, Long resourceId,
+                                    Boolean success, String ipAddress, String userAgent, JsonNode details) {
+            return new AuditEvent(userId, action, resourceType, resourceId, success,
+                    ipAddress, userAgent, details, Instant.now(), System.nanoTime());
+        }
+    }
+}
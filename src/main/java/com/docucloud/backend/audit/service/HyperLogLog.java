@@ -0,0 +1,75 @@
+package com.docucloud.backend.audit.service;
+
+/**
+ * HyperLogLog de precisión fija (p = 12, 4096 registros de 1 byte) para
+ * contar user_id distintos sin guardarlos.
+ *
+ * Error relativo típico 1.04 / sqrt(4096) ≈ 1.6% (≈ 3.3% en el 95% de los
+ * casos). Con pocos valores se usa linear counting y el resultado es
+ * prácticamente exacto. Unir sketches (merge) no añade error: el de un
+ * rango de días es el mismo que el de un solo día.
+ */
+public final class HyperLogLog {
+
+    static final int P = 12;
+    static final int M = 1 << P;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / M);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[M];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /** Reconstruye desde la columna user_hll; null o tamaño inesperado = vacío. */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        return bytes != null && bytes.length == M ? new HyperLogLog(bytes.clone()) : new HyperLogLog();
+    }
+
+    public byte[] toBytes() {
+        return registers.clone();
+    }
+
+    public void add(long value) {
+        long hash = mix(value);
+        int index = (int) (hash >>> (64 - P));
+        // Rango = ceros iniciales de los 52 bits restantes + 1 (bit centinela para el caso todo ceros)
+        int rank = Long.numberOfLeadingZeros((hash << P) | (1L << (P - 1))) + 1;
+        if (rank > registers[index]) registers[index] = (byte) rank;
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < M; i++) {
+            if (other.registers[i] > registers[i]) registers[i] = other.registers[i];
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte r : registers) {
+            sum += 1.0 / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double estimate = ALPHA * M * M / sum;
+        // Rango bajo: linear counting es más preciso mientras queden registros vacíos
+        if (estimate <= 2.5 * M && zeros > 0) {
+            estimate = M * Math.log((double) M / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    // Finalizador de murmur3 (64 bits): los user_id secuenciales quedan bien repartidos
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
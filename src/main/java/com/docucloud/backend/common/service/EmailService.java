@@ -1,9 +1,12 @@
 package com.docucloud.backend.common.service;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import com.docucloud.backend.config.AsyncConfig;
+import com.docucloud.backend.config.HttpClientConfig;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
@@ -26,13 +29,11 @@ public class EmailService {
     @Value("${app.email.sendgrid.api-key}")
     private String sendgridApiKey;
 
-    public EmailService(RestClient.Builder builder) {
-        this.restClient = builder
-                .baseUrl("https://api.sendgrid.com")
-                .build();
+    public EmailService(@Qualifier(HttpClientConfig.SENDGRID_REST_CLIENT) RestClient restClient) {
+        this.restClient = restClient;
     }
 
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendWelcome(String to, String name) {
         try {
             sendEmail(
@@ -49,7 +50,7 @@ public class EmailService {
         }
     }
 
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendPasswordResetEmail(String to, String resetUrl) {
         log.info("[Email] Preparando correo de recuperación para: {}", to);
         try {
@@ -69,7 +70,7 @@ public class EmailService {
         }
     }
 
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendShareGranted(String to, String documentName, String permission) {
         try {
             sendEmail(
@@ -86,7 +87,7 @@ public class EmailService {
         }
     }
 
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendShareRevoked(String to, String documentName) {
         try {
             sendEmail(
@@ -101,7 +102,7 @@ public class EmailService {
         }
     }
 
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendPermissionChanged(String to, String documentName, String newPermission) {
         try {
             sendEmail(
@@ -117,7 +118,7 @@ public class EmailService {
         }
     }
 
-    @Async
+    @Async(AsyncConfig.EMAIL_EXECUTOR)
     public void sendPasswordChanged(String to) {
         try {
             sendEmail(
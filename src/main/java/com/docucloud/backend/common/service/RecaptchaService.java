@@ -1,8 +1,9 @@
 package com.docucloud.backend.common.service;
 
+import com.docucloud.backend.config.HttpClientConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -23,11 +24,8 @@ public class RecaptchaService {
     @Value("${google.recaptcha.verify-url:https://www.google.com/recaptcha/api/siteverify}")
     private String verifyUrl;
 
-    public RecaptchaService() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(2000);
-        factory.setReadTimeout(2000);
-        this.restTemplate = new RestTemplate(factory);
+    public RecaptchaService(@Qualifier(HttpClientConfig.RECAPTCHA_REST_TEMPLATE) RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
     }
 
     public boolean verify(String recaptchaToken) {
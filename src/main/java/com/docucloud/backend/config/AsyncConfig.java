@@ -0,0 +1,129 @@
+package com.docucloud.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Un pool acotado por carga de trabajo: una ráfaga de uploads ya no puede
+ * dejar sin hilos a los emails. La auditoría no usa pool: tiene su propio
+ * hilo escritor (AuditWriter).
+ *
+ * Al definir executors propios Spring Boot deja de crear el suyo, así que
+ * aquí también se declara el pool por defecto ("taskExecutor") para los
+ * @Async sin nombre, construido con spring.task.execution.*.
+ *
+ * Métricas: Actuator registra automáticamente cada ThreadPoolTaskExecutor
+ * (executor.active, executor.queued, executor.completed, executor.pool.size...)
+ * con el tag name=<bean>. Ver /actuator/metrics/executor.queued.
+ */
+@Slf4j
+@Configuration
+public class AsyncConfig {
+
+    public static final String CLASSIFICATION_EXECUTOR = "classificationExecutor";
+    public static final String EMAIL_EXECUTOR          = "emailExecutor";
+    public static final String THUMBNAIL_EXECUTOR      = "thumbnailExecutor";
+    public static final String CONTENT_EXECUTOR        = "contentExecutor";
+
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        ThreadPoolTaskExecutor executor = builder.build();
+        executor.setRejectedExecutionHandler(new RetryThenCallerRuns(Duration.ofMillis(200)));
+        return executor;
+    }
+
+    @Bean(name = CLASSIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor classificationExecutor(
+            @Value("${app.async.classification.core-size:2}") int coreSize,
+            @Value("${app.async.classification.max-size:4}") int maxSize,
+            @Value("${app.async.classification.queue-capacity:200}") int queueCapacity,
+            @Value("${app.async.classification.retry-ms:500}") long retryMs) {
+        return bounded("classification-", coreSize, maxSize, queueCapacity, retryMs);
+    }
+
+    @Bean(name = EMAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor emailExecutor(
+            @Value("${app.async.email.core-size:1}") int coreSize,
+            @Value("${app.async.email.max-size:2}") int maxSize,
+            @Value("${app.async.email.queue-capacity:500}") int queueCapacity,
+            @Value("${app.async.email.retry-ms:1000}") long retryMs) {
+        return bounded("email-", coreSize, maxSize, queueCapacity, retryMs);
+    }
+
+    // Render de miniaturas: CPU y memoria por tarea, pocos hilos
+    @Bean(name = THUMBNAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor thumbnailExecutor(
+            @Value("${app.async.thumbnail.core-size:1}") int coreSize,
+            @Value("${app.async.thumbnail.max-size:2}") int maxSize,
+            @Value("${app.async.thumbnail.queue-capacity:500}") int queueCapacity,
+            @Value("${app.async.thumbnail.retry-ms:200}") long retryMs) {
+        return bounded("thumbnail-", coreSize, maxSize, queueCapacity, retryMs);
+    }
+
+    // Lecturas por rango a S3 para el texto del classifier: I/O, un lote las
+    // lanza a la vez
+    @Bean(name = CONTENT_EXECUTOR)
+    public ThreadPoolTaskExecutor contentExecutor(
+            @Value("${app.async.content.core-size:4}") int coreSize,
+            @Value("${app.async.content.max-size:8}") int maxSize,
+            @Value("${app.async.content.queue-capacity:100}") int queueCapacity,
+            @Value("${app.async.content.retry-ms:50}") long retryMs) {
+        return bounded("content-", coreSize, maxSize, queueCapacity, retryMs);
+    }
+
+    private ThreadPoolTaskExecutor bounded(
+            String prefix, int coreSize, int maxSize, int queueCapacity, long retryMs) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefix);
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(Math.max(coreSize, maxSize));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new RetryThenCallerRuns(Duration.ofMillis(retryMs)));
+        // En shutdown se terminan las tareas encoladas (los emails no se pierden)
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Rechazo sin pérdida: primero reintenta encolar durante {@code retry}
+     * (la cola suele liberarse en milisegundos) y, si sigue llena, ejecuta la
+     * tarea en el hilo que la envió. Eso frena al productor (backpressure)
+     * en lugar de descartar emails o clasificaciones.
+     */
+    static final class RetryThenCallerRuns implements RejectedExecutionHandler {
+
+        private final long retryMs;
+
+        RetryThenCallerRuns(Duration retry) {
+            this.retryMs = retry.toMillis();
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Executor detenido, tarea descartada");
+            }
+            try {
+                if (retryMs > 0 && executor.getQueue().offer(task, retryMs, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("⚠️ Executor saturado (active={} queued={}), ejecutando en el hilo llamador",
+                    executor.getActiveCount(), executor.getQueue().size());
+            task.run();
+        }
+    }
+}
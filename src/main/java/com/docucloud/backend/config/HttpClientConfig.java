@@ -1,14 +1,129 @@
 package com.docucloud.backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clientes HTTP salientes sobre Apache HttpClient 5 con pool y keep-alive:
+ * la conexión TCP/TLS se reutiliza entre llamadas en lugar de abrir una por
+ * request como SimpleClientHttpRequestFactory.
+ *
+ * Un pool por destino (classifier, SendGrid, reCAPTCHA) con su tamaño y
+ * timeouts en app.http.<destino>.*: un destino lento no agota las conexiones
+ * de los demás.
+ *
+ * Métricas:
+ * - http.client.requests (latencia con histograma, por client.name/uri/status):
+ *   los clientes salen del RestTemplateBuilder / RestClient.Builder de Boot,
+ *   que ya registran la observación.
+ * - httpcomponents.httpclient.pool.* (conexiones libres, en uso, en espera)
+ *   con tag httpclient=<destino>.
+ */
 @Configuration
-public class HttpClientConfig {
+public class HttpClientConfig implements DisposableBean {
+
+    public static final String CLASSIFIER_REST_TEMPLATE = "classifierRestTemplate";
+    public static final String RECAPTCHA_REST_TEMPLATE  = "recaptchaRestTemplate";
+    public static final String SENDGRID_REST_CLIENT     = "sendgridRestClient";
+
+    private final MeterRegistry meterRegistry;
+    private final long poolWaitMs;
+    private final List<CloseableHttpClient> clients = new ArrayList<>();
+
+    public HttpClientConfig(
+            MeterRegistry meterRegistry,
+            @Value("${app.http.pool-wait-ms:1000}") long poolWaitMs) {
+        this.meterRegistry = meterRegistry;
+        this.poolWaitMs = poolWaitMs;
+    }
+
+    @Bean(name = CLASSIFIER_REST_TEMPLATE)
+    public RestTemplate classifierRestTemplate(
+            RestTemplateBuilder builder,
+            @Value("${app.http.classifier.max-connections:20}") int maxConnections,
+            @Value("${app.http.classifier.connect-timeout-ms:2000}") long connectMs,
+            @Value("${app.http.classifier.read-timeout-ms:6000}") long readMs) {   // classifier tiene 5s de SLO
+        HttpComponentsClientHttpRequestFactory factory =
+                pooledFactory("classifier", maxConnections, connectMs, readMs);
+        return builder.requestFactory(() -> factory).build();
+    }
+
+    @Bean(name = RECAPTCHA_REST_TEMPLATE)
+    public RestTemplate recaptchaRestTemplate(
+            RestTemplateBuilder builder,
+            @Value("${app.http.recaptcha.max-connections:20}") int maxConnections,
+            @Value("${app.http.recaptcha.connect-timeout-ms:2000}") long connectMs,
+            @Value("${app.http.recaptcha.read-timeout-ms:2000}") long readMs) {
+        HttpComponentsClientHttpRequestFactory factory =
+                pooledFactory("recaptcha", maxConnections, connectMs, readMs);
+        return builder.requestFactory(() -> factory).build();
+    }
+
+    @Bean(name = SENDGRID_REST_CLIENT)
+    public RestClient sendgridRestClient(
+            RestClient.Builder builder,
+            @Value("${app.http.sendgrid.max-connections:10}") int maxConnections,
+            @Value("${app.http.sendgrid.connect-timeout-ms:2000}") long connectMs,
+            @Value("${app.http.sendgrid.read-timeout-ms:10000}") long readMs) {
+        return builder
+                .baseUrl("https://api.sendgrid.com")
+                .requestFactory(pooledFactory("sendgrid", maxConnections, connectMs, readMs))
+                .build();
+    }
+
+    private HttpComponentsClientHttpRequestFactory pooledFactory(
+            String name, int maxConnections, long connectMs, long readMs) {
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readMs))
+                        // Conexiones keep-alive que el servidor pudo cerrar: se validan antes de reusar
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Pool agotado: falla rápido en vez de encolar sin límite
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolWaitMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(pool, name).bindTo(meterRegistry);
+        clients.add(client);
+        return new HttpComponentsClientHttpRequestFactory(client);
+    }
 
-    @Bean
-    public RestClient.Builder restClientBuilder() {
-        return RestClient.builder();
+    @Override
+    public void destroy() throws Exception {
+        for (CloseableHttpClient client : clients) {
+            client.close();
+        }
     }
 }
@@ -1,18 +0,0 @@
-package com.docucloud.backend.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
-import org.springframework.web.client.RestTemplate;
-
-@Configuration
-public class RestTemplateConfig {
-
-    @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
-        factory.setConnectTimeout(2_000);   // 2s conexión
-        factory.setReadTimeout(6_000);       // 6s lectura (classifier tiene 5s de SLO)
-        return new RestTemplate(factory);
-    }
-}
@@ -0,0 +1,49 @@
+package com.docucloud.backend.documents.controller;
+
+import com.docucloud.backend.auth.security.UserDetailsImpl;
+import com.docucloud.backend.documents.dto.response.ReclassificationRunResponse;
+import com.docucloud.backend.documents.service.ReclassificationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/classification")
+@RequiredArgsConstructor
+public class AdminClassificationController {
+
+    private final ReclassificationService reclassificationService;
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/reclassify")
+    public ResponseEntity<ReclassificationRunResponse> start(
+            @RequestParam Long userId,
+            @AuthenticationPrincipal UserDetailsImpl admin) {
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(reclassificationService.start(admin.getId(), userId));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/reclassify")
+    public ResponseEntity<List<ReclassificationRunResponse>> list() {
+        return ResponseEntity.ok(reclassificationService.listRecent());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/reclassify/{runId}")
+    public ResponseEntity<ReclassificationRunResponse> get(@PathVariable Long runId) {
+        return ResponseEntity.ok(reclassificationService.get(runId));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/reclassify/{runId}/cancel")
+    public ResponseEntity<ReclassificationRunResponse> cancel(@PathVariable Long runId) {
+        return ResponseEntity.ok(reclassificationService.cancel(runId));
+    }
+}
@@ -0,0 +1,70 @@
+package com.docucloud.backend.documents.controller;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Classifier local para desarrollo y pruebas: mismo protocolo que el
+ * servicio real (/classify y /classify/batch) con reglas por palabra clave.
+ * Usar con classifier.url=http://localhost:8080/api/dev/classifier
+ */
+@Profile("dev")
+@RestController
+@RequestMapping("/api/dev/classifier")
+public class DevClassifierController {
+
+    private static final Map<String, String> KEYWORDS = Map.of(
+            "factura",   "Facturas",
+            "invoice",   "Facturas",
+            "contrato",  "Contratos",
+            "informe",   "Informes",
+            "reporte",   "Informes",
+            "legal",     "Legal",
+            "proyecto",  "Proyectos",
+            "dni",       "Personal"
+    );
+
+    @PostMapping("/classify")
+    public Prediction classify(@RequestBody ClassifyRequest request) {
+        return predict(request.fileName());
+    }
+
+    @PostMapping("/classify/batch")
+    public BatchResponse classifyBatch(@RequestBody BatchRequest request) {
+        return new BatchResponse(request.items().stream()
+                .map(item -> {
+                    Prediction p = predict(item.fileName());
+                    return new BatchResult(item.id(), p.category(), p.confidence());
+                })
+                .toList());
+    }
+
+    private Prediction predict(String fileName) {
+        String lower = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        return KEYWORDS.entrySet().stream()
+                .filter(e -> lower.contains(e.getKey()))
+                .findFirst()
+                .map(e -> new Prediction(e.getValue(), 0.9))
+                .orElse(new Prediction("Otros", 0.3));
+    }
+
+    public record ClassifyRequest(@JsonProperty("file_name") String fileName) {}
+
+    public record Prediction(String category, double confidence) {}
+
+    public record BatchItem(Long id, @JsonProperty("file_name") String fileName) {}
+
+    public record BatchRequest(List<BatchItem> items) {}
+
+    public record BatchResult(Long id, String category, double confidence) {}
+
+    public record BatchResponse(List<BatchResult> results) {}
+}
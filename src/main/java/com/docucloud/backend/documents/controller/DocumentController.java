@@ -4,12 +4,14 @@ import com.docucloud.backend.auth.security.UserDetailsImpl;
 import com.docucloud.backend.documents.dto.request.*;
 import com.docucloud.backend.documents.dto.response.*;
 import com.docucloud.backend.documents.model.Document;
+import com.docucloud.backend.documents.model.DocumentStatus;
 import com.docucloud.backend.documents.service.CategoryService;
 import com.docucloud.backend.documents.service.DocumentService;
 import com.docucloud.backend.documents.service.FolderService;
 import com.docucloud.backend.documents.service.ShareService;
 import com.docucloud.backend.search.service.SearchHistoryService;
 import com.docucloud.backend.storage.s3.dto.PresignedUrlResponse;
+import com.docucloud.backend.storage.s3.dto.S3ObjectStream;
 import com.docucloud.backend.tags.dto.response.TagResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,7 +27,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import software.amazon.awssdk.http.Abortable;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -35,6 +41,8 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class DocumentController {
 
+    private static final int STREAM_BUFFER_BYTES = 64 * 1024;
+
     private final DocumentService documentService;
     private final ShareService shareService;
     private final SearchHistoryService searchHistoryService;
@@ -65,33 +73,52 @@ public class DocumentController {
 
     // ── LISTADO Y BÚSQUEDA ────────────────────────────────────────────────────
 
+    // ?cursor=true (o ?after=<token>) activa la paginación keyset: respuesta
+    // CursorPageResponse sin total, orden fijo (createdAt DESC, id DESC).
+    // ?withTotal=false devuelve un Slice sin totalElements/totalPages: la UI
+    // solo necesita el total en la primera página.
     @GetMapping
-    public ResponseEntity<Page<DocumentResponse>> listDocuments(
+    public ResponseEntity<?> listDocuments(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false, defaultValue = "false") boolean unclassified,
+            @RequestParam(required = false, defaultValue = "false") boolean cursor,
+            @RequestParam(required = false, defaultValue = "true") boolean withTotal,
+            @RequestParam(required = false) String after,
             @PageableDefault(size = 20, sort = "createdAt",
                     direction = Sort.Direction.DESC) Pageable pageable,
             Authentication auth) {
 
         Long userId = getUserId(auth);
 
+        if (cursor || after != null) {
+            return ResponseEntity.ok(documentService.listAfter(
+                    userId, categoryId, unclassified, after, pageable.getPageSize()));
+        }
+
         if (unclassified) {
-            return ResponseEntity.ok(documentService.listUnclassified(userId, pageable));
+            return ResponseEntity.ok(documentService.listUnclassified(userId, pageable, withTotal));
         }
         if (categoryId != null) {
             return ResponseEntity.ok(
-                    documentService.listWithFavoritesByCategory(userId, categoryId, pageable));
+                    documentService.listWithFavoritesByCategory(userId, categoryId, pageable, withTotal));
         }
-        return ResponseEntity.ok(documentService.listWithFavorites(userId, pageable));
+        return ResponseEntity.ok(documentService.listWithFavorites(userId, pageable, withTotal));
     }
 
     @GetMapping("/recent")
-    public ResponseEntity<Page<DocumentResponse>> recentDocuments(
+    public ResponseEntity<?> recentDocuments(
+            @RequestParam(required = false, defaultValue = "false") boolean cursor,
+            @RequestParam(required = false, defaultValue = "true") boolean withTotal,
+            @RequestParam(required = false) String after,
             @PageableDefault(size = 10, sort = "createdAt",
                     direction = Sort.Direction.DESC) Pageable pageable,
             Authentication auth) {
+        if (cursor || after != null) {
+            return ResponseEntity.ok(documentService.listByStatusAfter(
+                    getUserId(auth), DocumentStatus.AVAILABLE, after, pageable.getPageSize()));
+        }
         return ResponseEntity.ok(
-                documentService.getRecentDocumentsWithFavorites(getUserId(auth), pageable));
+                documentService.getRecentDocumentsWithFavorites(getUserId(auth), pageable, withTotal));
     }
 
     @GetMapping("/search")
@@ -113,14 +140,21 @@ public class DocumentController {
                 userId, query, mimeType, status, fromDate, toDate, pageable));
     }
 
+    // Mismo orden en los dos modos: updatedAt DESC (los fallos más recientes primero)
     @GetMapping("/failed")
-    public ResponseEntity<Page<DocumentResponse>> failedDocuments(
+    public ResponseEntity<?> failedDocuments(
+            @RequestParam(required = false, defaultValue = "false") boolean cursor,
+            @RequestParam(required = false, defaultValue = "true") boolean withTotal,
+            @RequestParam(required = false) String after,
             @PageableDefault(size = 20, sort = "updatedAt",
                     direction = Sort.Direction.DESC) Pageable pageable,
             Authentication auth) {
 
         Long userId = getUserId(auth);
-        return ResponseEntity.ok(documentService.listFailedWithFavorites(userId, pageable));
+        if (cursor || after != null) {
+            return ResponseEntity.ok(documentService.listFailedAfter(userId, after, pageable.getPageSize()));
+        }
+        return ResponseEntity.ok(documentService.listFailedWithFavorites(userId, pageable, withTotal));
     }
 
     @GetMapping("/{documentId}")
@@ -351,20 +385,64 @@ public class DocumentController {
 
     // ── STREAM PARA GOOGLE DOCS VIEWER ────────────────────────────────────────
 
+    // Los bytes pasan de S3 a la respuesta por un buffer fijo: nunca se carga
+    // el archivo completo en heap. Soporta Range (206) e If-None-Match (304).
     @GetMapping("/{id}/stream")
-    public ResponseEntity<byte[]> streamDocument(@PathVariable Long id) {
+    public ResponseEntity<StreamingResponseBody> streamDocument(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        S3ObjectStream object;
+        Document document;
         try {
-            Document document = documentService.getDocumentByIdPublic(id);
-            byte[] fileBytes = documentService.downloadFileBytes(document);
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "inline; filename=\"" + document.getFileName() + "\"")
-                    .contentType(MediaType.parseMediaType(document.getMimeType()))
-                    .body(fileBytes);
-
+            document = documentService.getDocumentByIdPublic(id);
+            object = documentService.openDocumentStream(document, range, ifNoneMatch);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
+
+        if (object.body() == null) {
+            ResponseEntity.HeadersBuilder<?> empty = ResponseEntity.status(object.status())
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (object.status() == 304) {
+                // RFC 9110: el 304 repite el ETag del recurso. Solo el que da S3: el
+                // If-None-Match del cliente puede ser "*", una lista o un ETag débil
+                if (object.eTag() != null) empty.eTag(object.eTag());
+            } else if (object.status() == 416 && document.getSizeBytes() != null) {
+                empty.header(HttpHeaders.CONTENT_RANGE, "bytes */" + document.getSizeBytes());
+            }
+            return empty.build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(object.status())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "inline; filename=\"" + document.getFileName() + "\"")
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(MediaType.parseMediaType(document.getMimeType()));
+        if (object.contentLength() != null) response.contentLength(object.contentLength());
+        if (object.contentRange() != null) response.header(HttpHeaders.CONTENT_RANGE, object.contentRange());
+        if (object.eTag() != null) response.eTag(object.eTag());
+
+        return response.body(out -> {
+            InputStream in = object.body();
+            boolean aborted = false;
+            try {
+                byte[] buffer = new byte[STREAM_BUFFER_BYTES];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                // Cliente desconectado: se aborta antes de cerrar, porque close()
+                // drenaría el resto del objeto desde S3 para reutilizar la conexión
+                if (in instanceof Abortable abortable) {
+                    abortable.abort();
+                    aborted = true;
+                }
+                throw e;
+            } finally {
+                if (!aborted) in.close();
+            }
+        });
     }
-}
\ No newline at end of file
+}
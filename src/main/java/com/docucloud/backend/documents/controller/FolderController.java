@@ -43,14 +43,22 @@ public class FolderController {
         return ResponseEntity.ok(folderService.listFolders(getUserId(auth)));
     }
 
+    // ?cursor=true (o ?after=...) activa la paginación keyset sin total
     @GetMapping("/{folderId}/documents")
-    public ResponseEntity<Page<DocumentResponse>> getDocuments(
+    public ResponseEntity<?> getDocuments(
             @PathVariable Long folderId,
+            @RequestParam(required = false, defaultValue = "false") boolean cursor,
+            @RequestParam(required = false, defaultValue = "true") boolean withTotal,
+            @RequestParam(required = false) String after,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC)
             Pageable pageable,
             Authentication auth) {
+        if (cursor || after != null) {
+            return ResponseEntity.ok(folderService.getDocumentsByFolderAfter(
+                    getUserId(auth), folderId, after, pageable.getPageSize()));
+        }
         return ResponseEntity.ok(
-                folderService.getDocumentsByFolder(getUserId(auth), folderId, pageable));
+                folderService.getDocumentsByFolder(getUserId(auth), folderId, pageable, withTotal));
     }
 
     @PatchMapping("/{folderId}")
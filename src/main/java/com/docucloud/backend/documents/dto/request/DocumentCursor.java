@@ -0,0 +1,37 @@
+package com.docucloud.backend.documents.dto.request;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para paginación keyset sobre (at DESC, id DESC), donde {@code at}
+ * es el instante de la clave de orden del listado: createdAt en general,
+ * updatedAt en /failed. El cliente solo ve un token base64url; nunca un offset.
+ */
+public record DocumentCursor(Instant at, Long id) {
+
+    /** Primera página: cualquier documento real queda "antes" de este punto. */
+    public static final DocumentCursor START =
+            new DocumentCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = at.toString() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Token nulo o vacío = primera página. Token corrupto = IllegalArgumentException (400). */
+    public static DocumentCursor decode(String token) {
+        if (token == null || token.isBlank()) return START;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new DocumentCursor(
+                    Instant.parse(raw.substring(0, sep)),
+                    Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor 'after' inválido");
+        }
+    }
+}
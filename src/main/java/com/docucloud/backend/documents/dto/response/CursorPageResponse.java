@@ -0,0 +1,14 @@
+package com.docucloud.backend.documents.dto.response;
+
+import java.util.List;
+
+/**
+ * Respuesta estilo Slice para paginación por cursor: sin total ni COUNT(*).
+ * nextCursor se envía como ?after= para pedir la página siguiente.
+ */
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {}
@@ -2,6 +2,7 @@ package com.docucloud.backend.documents.dto.response;
 
 import com.docucloud.backend.documents.model.Document;
 import com.docucloud.backend.documents.model.DocumentStatus;
+import com.docucloud.backend.documents.repository.DocumentRow;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -17,6 +18,7 @@ public record DocumentResponse(
         DocumentStatus status,
         Long folderId,
         Long categoryId,
+        String categoryName,
         boolean isAutomaticallyAssigned,
         BigDecimal confidenceScore,
         List<String> tagNames,
@@ -50,6 +52,7 @@ public record DocumentResponse(
         if (d == null) return null;
 
         Long catId = null;
+        String catName = null;
         boolean auto = false;
         BigDecimal confidence = null;
 
@@ -57,7 +60,8 @@ public record DocumentResponse(
         // si un documento tiene clasificación pero sin categoría asignada aún
         if (d.getClassification() != null) {
             if (d.getClassification().getCategory() != null) {
-                catId = d.getClassification().getCategory().getId();
+                catId   = d.getClassification().getCategory().getId();
+                catName = d.getClassification().getCategory().getName();
             }
             auto       = Boolean.TRUE.equals(d.getClassification().getIsAutomaticallyAssigned());
             confidence = d.getClassification().getConfidenceScore();
@@ -79,6 +83,7 @@ public record DocumentResponse(
                 d.getStatus(),
                 d.getFolderId(),
                 catId,
+                catName,
                 auto,
                 confidence,
                 tags,
@@ -88,4 +93,26 @@ public record DocumentResponse(
                 thumbnailUrl  // ✅ FIX: se propaga al record
         );
     }
+
+    /** Desde el modelo de lectura de listados: sin entidades ni lazy loads. */
+    public static DocumentResponse from(DocumentRow r, List<String> tagNames, String thumbnailUrl) {
+        return new DocumentResponse(
+                r.id(),
+                r.fileName(),
+                r.mimeType(),
+                r.sizeBytes(),
+                r.fileHash(),
+                r.status(),
+                r.folderId(),
+                r.categoryId(),
+                r.categoryName(),
+                Boolean.TRUE.equals(r.isAutomaticallyAssigned()),
+                r.confidenceScore(),
+                tagNames,
+                r.createdAt(),
+                r.updatedAt(),
+                r.isFavorite(),
+                thumbnailUrl
+        );
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.docucloud.backend.documents.dto.response;
+
+import com.docucloud.backend.documents.model.ReclassificationRun;
+import com.docucloud.backend.documents.model.ReclassificationStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Progreso de una reclasificación masiva. {@code pending} son los jobs del
+ * usuario que siguen en classification_jobs; {@code processed} los ya
+ * resueltos (clasificados, sin clasificar o FAILED tras agotar reintentos).
+ */
+public record ReclassificationRunResponse(
+        Long id,
+        Long targetUserId,
+        Long requestedByUserId,
+        ReclassificationStatus status,
+        long totalDocuments,
+        long enqueuedDocuments,
+        long pending,
+        long processed,
+        double percent,
+        double docsPerSecond,
+        Instant startedAt,
+        Instant finishedAt
+) {
+    public static ReclassificationRunResponse from(ReclassificationRun run, long pending) {
+        long processed = Math.max(0, run.getEnqueuedDocuments() - pending);
+        double percent = run.getTotalDocuments() == 0
+                ? 100.0
+                : Math.min(100.0, processed * 100.0 / run.getTotalDocuments());
+
+        Instant end = run.getFinishedAt() != null ? run.getFinishedAt() : Instant.now();
+        double seconds = Math.max(1, Duration.between(run.getStartedAt(), end).toSeconds());
+
+        return new ReclassificationRunResponse(
+                run.getId(),
+                run.getTargetUserId(),
+                run.getRequestedByUserId(),
+                run.getStatus(),
+                run.getTotalDocuments(),
+                run.getEnqueuedDocuments(),
+                pending,
+                processed,
+                Math.round(percent * 10) / 10.0,
+                Math.round(processed / seconds * 100) / 100.0,
+                run.getStartedAt(),
+                run.getFinishedAt()
+        );
+    }
+}
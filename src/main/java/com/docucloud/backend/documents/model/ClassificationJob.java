@@ -0,0 +1,56 @@
+package com.docucloud.backend.documents.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Clasificación pendiente de un documento. Se crea en la misma transacción
+ * que completeUpload y se borra al aplicar el resultado; mientras exista,
+ * el documento sigue en la cola aunque el proceso se reinicie.
+ */
+@Entity
+@Table(name = "classification_jobs")
+@Getter @Setter
+@NoArgsConstructor
+public class ClassificationJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "document_id", nullable = false, unique = true)
+    private Long documentId;
+
+    @Column(name = "owner_user_id", nullable = false)
+    private Long ownerUserId;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    // Antes de esta fecha el drenado no lo toca (backoff o lease del envío en curso)
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt = Instant.now();
+
+    @PrePersist
+    void prePersist() {
+        if (createdAt == null) createdAt = Instant.now();
+        updatedAt = Instant.now();
+    }
+
+    @PreUpdate
+    void preUpdate() { updatedAt = Instant.now(); }
+}
@@ -0,0 +1,38 @@
+package com.docucloud.backend.documents.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Fila de estadísticas por usuario. Solo lectura desde JPA: las escrituras
+ * son deltas atómicos en SQL (ClassificationStatsRepository.applyDelta)
+ * para no perder incrementos concurrentes.
+ */
+@Entity
+@Table(name = "classification_stats")
+@Getter
+@NoArgsConstructor
+public class ClassificationStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "total_documents", nullable = false)
+    private long totalDocuments;
+
+    @Column(name = "classified_documents", nullable = false)
+    private long classifiedDocuments;
+
+    @Column(name = "failed_documents", nullable = false)
+    private long failedDocuments;
+
+    @Column(name = "categories_count", nullable = false)
+    private long categoriesCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
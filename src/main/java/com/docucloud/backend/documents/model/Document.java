@@ -11,9 +11,18 @@ import java.util.Set;
 @Entity
 @JsonInclude(JsonInclude.Include.NON_NULL)
 @Table(name = "documents")
+@NamedEntityGraph(
+        name = Document.WITH_CLASSIFICATION,
+        attributeNodes = @NamedAttributeNode(value = "classification", subgraph = "category"),
+        subgraphs = @NamedSubgraph(name = "category", attributeNodes = @NamedAttributeNode("category"))
+)
 @Getter @Setter
 public class Document {
 
+    // Carga classification + category en el mismo SELECT. Sin este grafo, el
+    // @OneToOne inverso no se puede proxiar y Hibernate hace 1 select extra por fila.
+    public static final String WITH_CLASSIFICATION = "Document.withClassification";
+
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -54,7 +63,12 @@ public class Document {
     @Column(name = "folder_id")
     private Long folderId;
 
-    // ← LAZY: evita N+1 en listados de documentos
+    // Miniatura JPEG generada tras el upload (null hasta que el pipeline termine)
+    @Column(name = "thumbnail_s3_key")
+    private String thumbnailS3Key;
+
+    // Lado inverso: LAZY no aplica sin bytecode enhancement. Los listados de
+    // entidades usan el grafo WITH_CLASSIFICATION para evitar el N+1.
     @OneToOne(mappedBy = "document", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private DocumentCategory classification;
 
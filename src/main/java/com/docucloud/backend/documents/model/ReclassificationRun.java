@@ -0,0 +1,55 @@
+package com.docucloud.backend.documents.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "reclassification_runs")
+@Getter @Setter
+@NoArgsConstructor
+public class ReclassificationRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "target_user_id", nullable = false)
+    private Long targetUserId;
+
+    @Column(name = "requested_by_user_id", nullable = false)
+    private Long requestedByUserId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReclassificationStatus status = ReclassificationStatus.RUNNING;
+
+    // Cursor keyset: último documents.id ya encolado
+    @Column(name = "last_document_id", nullable = false)
+    private long lastDocumentId = 0;
+
+    @Column(name = "total_documents", nullable = false)
+    private long totalDocuments;
+
+    @Column(name = "enqueued_documents", nullable = false)
+    private long enqueuedDocuments;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private Instant startedAt = Instant.now();
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt = Instant.now();
+
+    @PrePersist
+    void prePersist() {
+        if (startedAt == null) startedAt = Instant.now();
+        updatedAt = Instant.now();
+    }
+
+    @PreUpdate
+    void preUpdate() { updatedAt = Instant.now(); }
+}
@@ -0,0 +1,7 @@
+package com.docucloud.backend.documents.model;
+
+public enum ReclassificationStatus {
+    RUNNING,
+    COMPLETED,
+    CANCELLED
+}
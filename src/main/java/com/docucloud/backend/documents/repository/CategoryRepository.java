@@ -43,4 +43,8 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Object[]> countDocumentsGroupedByCategory(@Param("userId") Long userId);
 
     List<Category> findByOwnerUserId(Long ownerUserId);
+
+    // Solo (id, name): lo que necesita CategoryIndex, sin hidratar entidades
+    @Query("SELECT c.id, c.name FROM Category c WHERE c.ownerUserId = :userId")
+    List<Object[]> findIdAndNameByOwnerUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.docucloud.backend.documents.repository;
+
+import com.docucloud.backend.documents.model.ClassificationJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ClassificationJobRepository extends JpaRepository<ClassificationJob, Long> {
+
+    Optional<ClassificationJob> findByDocumentId(Long documentId);
+
+    List<ClassificationJob> findAllByDocumentIdIn(Collection<Long> documentIds);
+
+    // SKIP LOCKED: varias instancias pueden drenar a la vez sin tomar el mismo job
+    @Query(value = """
+            SELECT * FROM classification_jobs
+            WHERE next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<ClassificationJob> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM ClassificationJob j WHERE j.documentId = :documentId")
+    int deleteByDocumentId(@Param("documentId") Long documentId);
+
+    long countByNextAttemptAtLessThanEqual(Instant now);
+
+    long countByOwnerUserId(Long ownerUserId);
+
+    // Encola un chunk de la reclasificación en 1 sentencia. Los que ya tienen
+    // job (upload en curso, reintento) se dejan como están.
+    @Modifying
+    @Query(value = """
+            INSERT INTO classification_jobs
+                (document_id, owner_user_id, file_name, attempts, next_attempt_at, created_at, updated_at)
+            SELECT d.id, d.owner_user_id, d.file_name, 0, now(), now(), now()
+            FROM documents d
+            WHERE d.id IN (:documentIds)
+            ON CONFLICT (document_id) DO NOTHING
+            """, nativeQuery = true)
+    int enqueueAll(@Param("documentIds") Collection<Long> documentIds);
+}
@@ -0,0 +1,62 @@
+package com.docucloud.backend.documents.repository;
+
+import com.docucloud.backend.documents.model.ClassificationStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ClassificationStatsRepository extends JpaRepository<ClassificationStats, Long> {
+
+    // Solo UPDATE: si la fila no existe todavía, un delta suelto dejaría
+    // números parciales. La primera lectura la crea con reconcile.
+    @Modifying
+    @Query(value = """
+            UPDATE classification_stats SET
+                total_documents      = GREATEST(0, total_documents + :total),
+                classified_documents = GREATEST(0, classified_documents + :classified),
+                failed_documents     = GREATEST(0, failed_documents + :failed),
+                categories_count     = GREATEST(0, categories_count + :categories),
+                updated_at           = now()
+            WHERE user_id = :userId
+            """, nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("total") long total,
+                   @Param("classified") long classified,
+                   @Param("failed") long failed,
+                   @Param("categories") long categories);
+
+    // Recalcula desde las tablas base (mismas condiciones que las antiguas COUNT de getStats)
+    @Modifying
+    @Query(value = """
+            INSERT INTO classification_stats
+                (user_id, total_documents, classified_documents, failed_documents, categories_count, updated_at)
+            SELECT u.id,
+                   (SELECT COUNT(*) FROM documents d
+                     WHERE d.owner_user_id = u.id AND d.deleted_at IS NULL AND d.status <> 'DELETED'),
+                   (SELECT COUNT(*) FROM documents d JOIN document_categories dc ON dc.document_id = d.id
+                     WHERE d.owner_user_id = u.id AND d.deleted_at IS NULL AND d.status <> 'DELETED'),
+                   (SELECT COUNT(*) FROM documents d
+                     WHERE d.owner_user_id = u.id AND d.deleted_at IS NULL AND d.status = 'FAILED'),
+                   (SELECT COUNT(*) FROM categories c WHERE c.owner_user_id = u.id),
+                   now()
+            FROM users u
+            WHERE u.id IN (:userIds)
+            ON CONFLICT (user_id) DO UPDATE SET
+                total_documents      = EXCLUDED.total_documents,
+                classified_documents = EXCLUDED.classified_documents,
+                failed_documents     = EXCLUDED.failed_documents,
+                categories_count     = EXCLUDED.categories_count,
+                updated_at           = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int reconcile(@Param("userIds") Collection<Long> userIds);
+
+    @Query(value = "SELECT u.id FROM users u WHERE u.id > :afterId ORDER BY u.id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findUserIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+}
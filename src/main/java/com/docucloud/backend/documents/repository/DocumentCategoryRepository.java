@@ -1,7 +1,10 @@
 package com.docucloud.backend.documents.repository;
 
 import com.docucloud.backend.documents.model.DocumentCategory;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -28,4 +31,17 @@ public interface DocumentCategoryRepository
 
     // borra clasificaciones de múltiples categorías en 1 query
     void deleteByCategory_IdIn(List<Long> categoryIds);
+
+    // Asignaciones manuales más recientes: entrenamiento inicial del modelo local
+    @Query("""
+            SELECT new com.docucloud.backend.documents.repository.ManualAssignmentRow(c.id, d.fileName)
+            FROM DocumentCategory dc
+            JOIN dc.document d
+            JOIN dc.category c
+            WHERE d.ownerUserId = :ownerUserId
+              AND d.deletedAt IS NULL
+              AND dc.isAutomaticallyAssigned = false
+            ORDER BY dc.createdAt DESC
+            """)
+    List<ManualAssignmentRow> findManualAssignments(@Param("ownerUserId") Long ownerUserId, Limit limit);
 }
\ No newline at end of file
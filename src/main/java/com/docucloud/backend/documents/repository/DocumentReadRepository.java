@@ -0,0 +1,158 @@
+package com.docucloud.backend.documents.repository;
+
+import com.docucloud.backend.documents.model.Document;
+import com.docucloud.backend.documents.model.DocumentStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Lado de lectura de los listados de documentos. Cada método devuelve
+ * {@link DocumentRow} con un solo SELECT: documento + clasificación +
+ * categoría + favorito del usuario. Los tags se cargan aparte en batch
+ * ({@link DocumentTagRepository#findTagRowsByOwnedDocumentIds}).
+ */
+public interface DocumentReadRepository extends Repository<Document, Long> {
+
+    // Favorite tiene UNIQUE (user_id, document_id): el LEFT JOIN no duplica filas
+    String ROW_SELECT = """
+            SELECT new com.docucloud.backend.documents.repository.DocumentRow(
+                d.id, d.fileName, d.mimeType, d.sizeBytes, d.fileHash, d.status, d.folderId,
+                d.s3Bucket, d.s3Key, d.thumbnailS3Key,
+                c.id, c.name, dc.isAutomaticallyAssigned, dc.confidenceScore,
+                d.createdAt, d.updatedAt, f.id)
+            FROM Document d
+            LEFT JOIN d.classification dc
+            LEFT JOIN dc.category c
+            LEFT JOIN Favorite f ON f.document.id = d.id AND f.user.id = :ownerUserId
+            """;
+
+    String OWNED = """
+            WHERE d.ownerUserId = :ownerUserId
+              AND d.deletedAt IS NULL
+            """;
+
+    String NOT_DELETED_STATUS = """
+              AND d.status != com.docucloud.backend.documents.model.DocumentStatus.DELETED
+            """;
+
+    String AFTER_CURSOR = """
+              AND (d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id))
+            ORDER BY d.createdAt DESC, d.id DESC
+            """;
+
+    String AFTER_UPDATED_CURSOR = """
+              AND (d.updatedAt < :updatedAt OR (d.updatedAt = :updatedAt AND d.id < :id))
+            ORDER BY d.updatedAt DESC, d.id DESC
+            """;
+
+    // ─── LISTADO PAGINADO ─────────────────────────────────────────────────────
+    // Slice: sin COUNT, Spring pide size + 1 filas para saber si hay más.
+    // El total (si se pide) sale de los count* de abajo vía DocumentCountCache.
+
+    @Query(ROW_SELECT + OWNED)
+    Slice<DocumentRow> findAllRows(
+            @Param("ownerUserId") Long ownerUserId, Pageable pageable);
+
+    @Query(ROW_SELECT + OWNED + "  AND d.status = :status\n")
+    Slice<DocumentRow> findRowsByStatus(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("status") DocumentStatus status,
+            Pageable pageable);
+
+    @Query(ROW_SELECT + OWNED + "  AND c.id = :categoryId\n")
+    Slice<DocumentRow> findRowsByCategory(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("categoryId") Long categoryId,
+            Pageable pageable);
+
+    @Query(ROW_SELECT + OWNED + NOT_DELETED_STATUS + "  AND c.id IS NULL\n")
+    Slice<DocumentRow> findUnclassifiedRows(
+            @Param("ownerUserId") Long ownerUserId, Pageable pageable);
+
+    @Query(ROW_SELECT + OWNED + "  AND d.folderId = :folderId\n")
+    Slice<DocumentRow> findRowsByFolder(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("folderId") Long folderId,
+            Pageable pageable);
+
+    // ─── TOTALES ──────────────────────────────────────────────────────────────
+
+    @Query("SELECT COUNT(d) FROM Document d " + OWNED)
+    long countAll(@Param("ownerUserId") Long ownerUserId);
+
+    @Query("SELECT COUNT(d) FROM Document d " + OWNED + "  AND d.status = :status\n")
+    long countByStatus(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("status") DocumentStatus status);
+
+    @Query("SELECT COUNT(d) FROM Document d " + OWNED + "  AND d.classification.category.id = :categoryId\n")
+    long countByCategory(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("categoryId") Long categoryId);
+
+    @Query("SELECT COUNT(d) FROM Document d LEFT JOIN d.classification dc "
+            + OWNED + NOT_DELETED_STATUS + "  AND dc.category IS NULL\n")
+    long countUnclassified(@Param("ownerUserId") Long ownerUserId);
+
+    @Query("SELECT COUNT(d) FROM Document d " + OWNED + "  AND d.folderId = :folderId\n")
+    long countByFolder(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("folderId") Long folderId);
+
+    // ─── LISTADO POR CURSOR (keyset) ──────────────────────────────────────────
+    // Range scan sobre (owner_user_id, created_at DESC, id DESC). Ver db/migrations/002.
+
+    @Query(ROW_SELECT + OWNED + AFTER_CURSOR)
+    List<DocumentRow> findAllRowsAfter(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    @Query(ROW_SELECT + OWNED + "  AND d.status = :status\n" + AFTER_CURSOR)
+    List<DocumentRow> findRowsByStatusAfter(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("status") DocumentStatus status,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    // /failed: por updatedAt, el mismo orden que su modo offset. Ver db/migrations/009.
+    @Query(ROW_SELECT + OWNED + "  AND d.status = :status\n" + AFTER_UPDATED_CURSOR)
+    List<DocumentRow> findRowsByStatusUpdatedAfter(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("status") DocumentStatus status,
+            @Param("updatedAt") Instant updatedAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    @Query(ROW_SELECT + OWNED + "  AND c.id = :categoryId\n" + AFTER_CURSOR)
+    List<DocumentRow> findRowsByCategoryAfter(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("categoryId") Long categoryId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    @Query(ROW_SELECT + OWNED + NOT_DELETED_STATUS + "  AND c.id IS NULL\n" + AFTER_CURSOR)
+    List<DocumentRow> findUnclassifiedRowsAfter(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    @Query(ROW_SELECT + OWNED + "  AND d.folderId = :folderId\n" + AFTER_CURSOR)
+    List<DocumentRow> findRowsByFolderAfter(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("folderId") Long folderId,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit);
+}
@@ -2,15 +2,20 @@ package com.docucloud.backend.documents.repository;
 
 import com.docucloud.backend.documents.model.Document;
 import com.docucloud.backend.documents.model.DocumentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,16 +23,34 @@ public interface DocumentRepository extends JpaRepository<Document, Long>,
         JpaSpecificationExecutor<Document> {
 
     // ─── LISTADO ──────────────────────────────────────────────────────────────
+    // Todo método que devuelve varias entidades Document lleva el grafo
+    // WITH_CLASSIFICATION: N documentos = 1 SELECT (+ COUNT), no 1 + N.
 
+    @Override
+    @EntityGraph(Document.WITH_CLASSIFICATION)
+    Page<Document> findAll(Specification<Document> spec, Pageable pageable);
+
+    @Override
+    @EntityGraph(Document.WITH_CLASSIFICATION)
+    List<Document> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     Page<Document> findAllByOwnerUserIdAndDeletedAtIsNull(Long ownerUserId, Pageable pageable);
 
+    // Lecturas de un documento: también con el grafo. DocumentResponse.from(Document)
+    // lee el nombre de la categoría y el lado mappedBy del OneToOne se carga igualmente;
+    // con el grafo es un JOIN en el mismo SELECT en lugar de dos SELECT más.
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     Optional<Document> findByIdAndOwnerUserIdAndDeletedAtIsNull(Long id, Long ownerUserId);
 
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     Optional<Document> findByIdAndDeletedAtIsNull(Long id);
 
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     Page<Document> findByOwnerUserIdAndStatusAndDeletedAtIsNullOrderByCreatedAtDesc(
             Long ownerUserId, DocumentStatus status, Pageable pageable);
 
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     Page<Document> findByOwnerUserIdAndStatusAndDeletedAtIsNull(
             Long ownerUserId,
             DocumentStatus status,
@@ -36,23 +59,74 @@ public interface DocumentRepository extends JpaRepository<Document, Long>,
 
     // ─── CARPETAS ─────────────────────────────────────────────────────────────
 
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     Page<Document> findByOwnerUserIdAndFolderIdAndDeletedAtIsNull(
             Long ownerUserId, Long folderId, Pageable pageable);
 
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     Page<Document> findByOwnerUserIdAndFolderIdIsNullAndDeletedAtIsNull(
             Long ownerUserId, Pageable pageable);
 
     // ─── BÚSQUEDA ─────────────────────────────────────────────────────────────
 
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     Page<Document> findByOwnerUserIdAndDeletedAtIsNullAndFileNameContainingIgnoreCaseOrderByCreatedAtDesc(
             Long ownerUserId, String nameQuery, Pageable pageable);
 
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     Page<Document> findByOwnerUserIdAndMimeTypeAndDeletedAtIsNullOrderByCreatedAtDesc(
             Long ownerUserId, String mimeType, Pageable pageable);
 
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     Page<Document> findByOwnerUserIdAndCreatedAtBetweenAndDeletedAtIsNullOrderByCreatedAtDesc(
             Long ownerUserId, Instant from, Instant to, Pageable pageable);
 
+    // Full-text + trigramas (ver db/migrations/001_documents_search_index.sql).
+    // Filtros opcionales con centinelas ('' / rango amplio) para no bindear nulls.
+    // El Pageable debe llegar sin Sort: el orden lo define el ranking.
+    // Solo devuelve IDs: las entidades se cargan después con el grafo
+    // (findWithClassificationByIdIn), una query nativa no admite EntityGraph.
+    @Query(
+            value = """
+            SELECT d.id FROM documents d
+            WHERE d.owner_user_id = :ownerId
+              AND d.deleted_at IS NULL
+              AND (d.search_vector @@ to_tsquery('simple', :tsQuery)
+                   OR lower(d.file_name) LIKE :likePattern)
+              AND (:mimeType = '' OR d.mime_type = :mimeType)
+              AND (:status = '' OR d.status = :status)
+              AND d.created_at BETWEEN :fromDate AND :toDate
+            ORDER BY ts_rank(d.search_vector, to_tsquery('simple', :tsQuery)) DESC,
+                     similarity(lower(d.file_name), :rawQuery) DESC,
+                     d.created_at DESC,
+                     d.id DESC
+            """,
+            countQuery = """
+            SELECT COUNT(*) FROM documents d
+            WHERE d.owner_user_id = :ownerId
+              AND d.deleted_at IS NULL
+              AND (d.search_vector @@ to_tsquery('simple', :tsQuery)
+                   OR lower(d.file_name) LIKE :likePattern)
+              AND (:mimeType = '' OR d.mime_type = :mimeType)
+              AND (:status = '' OR d.status = :status)
+              AND d.created_at BETWEEN :fromDate AND :toDate
+            """,
+            nativeQuery = true
+    )
+    Page<Long> searchRankedIds(
+            @Param("ownerId") Long ownerId,
+            @Param("tsQuery") String tsQuery,
+            @Param("likePattern") String likePattern,
+            @Param("rawQuery") String rawQuery,
+            @Param("mimeType") String mimeType,
+            @Param("status") String status,
+            @Param("fromDate") Instant fromDate,
+            @Param("toDate") Instant toDate,
+            Pageable pageable);
+
+    @EntityGraph(Document.WITH_CLASSIFICATION)
+    List<Document> findWithClassificationByIdIn(Collection<Long> ids);
+
     // ─── CONTEOS ──────────────────────────────────────────────────────────────
 
     long countByOwnerUserIdAndDeletedAtIsNull(Long ownerUserId);
@@ -72,6 +146,7 @@ public interface DocumentRepository extends JpaRepository<Document, Long>,
 
     // ─── CATEGORÍAS ───────────────────────────────────────────────────────────
 
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     @Query("""
             SELECT d FROM Document d
             WHERE d.ownerUserId = :ownerUserId
@@ -83,6 +158,7 @@ public interface DocumentRepository extends JpaRepository<Document, Long>,
             @Param("categoryId") Long categoryId,
             Pageable pageable);
 
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     @Query("""
     SELECT d FROM Document d
     WHERE d.ownerUserId = :ownerUserId
@@ -100,6 +176,7 @@ public interface DocumentRepository extends JpaRepository<Document, Long>,
 
     // ─── COMPARTIDOS ──────────────────────────────────────────────────────────
 
+    @EntityGraph(Document.WITH_CLASSIFICATION)
     @Query(
             value = """
             SELECT DISTINCT d FROM Document d
@@ -133,32 +210,44 @@ public interface DocumentRepository extends JpaRepository<Document, Long>,
     @Query("UPDATE Document d SET d.deletedAt = :now WHERE d.ownerUserId = :userId AND d.deletedAt IS NULL")
     void softDeleteByOwnerUserId(@Param("userId") Long userId, @Param("now") Instant now);
 
-    // ─── STATS DE CLASIFICACIÓN ───────────────────────────────────────────────────
+    // Solo la columna de la miniatura: no pisa un borrado, reclasificación o
+    // renombrado que ocurra mientras se genera
+    @Modifying
+    @Transactional
+    @Query("UPDATE Document d SET d.thumbnailS3Key = :key WHERE d.id = :id AND d.deletedAt IS NULL")
+    int updateThumbnailKey(@Param("id") Long id, @Param("key") String key);
 
-    @Query("""
-    SELECT COUNT(d) FROM Document d
-    WHERE d.ownerUserId = :userId
-      AND d.deletedAt IS NULL
-      AND d.status != com.docucloud.backend.documents.model.DocumentStatus.DELETED
-    """)
-    long countActiveByOwnerUserId(@Param("userId") Long userId);
+    // ─── CLASIFICACIÓN POR CONTENIDO ──────────────────────────────────────────
 
     @Query("""
-    SELECT COUNT(d) FROM Document d
-    WHERE d.ownerUserId = :userId
-      AND d.deletedAt IS NULL
-      AND d.status != com.docucloud.backend.documents.model.DocumentStatus.DELETED
-      AND d.classification IS NOT NULL
-    """)
-    long countClassifiedByOwnerUserId(@Param("userId") Long userId);
+            SELECT new com.docucloud.backend.documents.repository.StoredObjectRow(
+                d.id, d.s3Bucket, d.s3Key, d.mimeType)
+            FROM Document d
+            WHERE d.id IN :ids
+              AND d.deletedAt IS NULL
+            """)
+    List<StoredObjectRow> findStoredObjects(@Param("ids") Collection<Long> ids);
 
-    @Query("""
-    SELECT COUNT(d) FROM Document d
-    WHERE d.ownerUserId = :userId
-      AND d.deletedAt IS NULL
-      AND d.status = :status
-    """)
-    long countByOwnerUserIdAndStatusFiltered(
+    // ─── RECLASIFICACIÓN MASIVA ───────────────────────────────────────────────
+    // Keyset sobre documents.id: cada chunk es un range scan desde el cursor.
+    // Los documentos con categoría manual no se vuelven a clasificar.
+
+    String RECLASSIFIABLE = """
+            FROM Document d
+            LEFT JOIN d.classification dc
+            WHERE d.ownerUserId = :userId
+              AND d.deletedAt IS NULL
+              AND d.status IN (com.docucloud.backend.documents.model.DocumentStatus.AVAILABLE,
+                               com.docucloud.backend.documents.model.DocumentStatus.FAILED)
+              AND (dc IS NULL OR dc.isAutomaticallyAssigned = true)
+            """;
+
+    @Query("SELECT d.id " + RECLASSIFIABLE + " AND d.id > :afterId ORDER BY d.id")
+    List<Long> findReclassifiableIdsAfter(
             @Param("userId") Long userId,
-            @Param("status") DocumentStatus status);
+            @Param("afterId") Long afterId,
+            Limit limit);
+
+    @Query("SELECT COUNT(d) " + RECLASSIFIABLE)
+    long countReclassifiable(@Param("userId") Long userId);
 }
\ No newline at end of file
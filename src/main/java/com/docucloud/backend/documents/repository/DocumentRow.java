@@ -0,0 +1,36 @@
+package com.docucloud.backend.documents.repository;
+
+import com.docucloud.backend.documents.model.DocumentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Modelo de lectura para listados: exactamente las columnas que necesita
+ * DocumentResponse, con categoría y favorito resueltos en la misma query.
+ * No es una entidad — no pasa por el persistence context ni por dirty-checking.
+ */
+public record DocumentRow(
+        Long id,
+        String fileName,
+        String mimeType,
+        Long sizeBytes,
+        String fileHash,
+        DocumentStatus status,
+        Long folderId,
+        String s3Bucket,
+        String s3Key,
+        String thumbnailS3Key,
+        Long categoryId,
+        String categoryName,
+        Boolean isAutomaticallyAssigned,
+        BigDecimal confidenceScore,
+        Instant createdAt,
+        Instant updatedAt,
+        Long favoriteId   // null si el usuario no lo marcó como favorito
+) {
+
+    public boolean isFavorite() {
+        return favoriteId != null;
+    }
+}
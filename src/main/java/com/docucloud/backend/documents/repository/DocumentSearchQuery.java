@@ -0,0 +1,47 @@
+package com.docucloud.backend.documents.repository;
+
+import java.util.Locale;
+
+/**
+ * Construye los parámetros de {@link DocumentRepository#searchRankedIds}.
+ * El texto del usuario nunca llega crudo a to_tsquery ni al LIKE.
+ */
+public final class DocumentSearchQuery {
+
+    private DocumentSearchQuery() {
+        // Clase utilitaria, no instanciar
+    }
+
+    /**
+     * "factura 2024" → "factura:* & 2024:*" (prefijos, todos obligatorios).
+     * Solo se conservan letras y dígitos, así la sintaxis de tsquery no se rompe.
+     */
+    public static String toPrefixTsQuery(String query) {
+        if (query == null) return "";
+        StringBuilder out = new StringBuilder();
+        StringBuilder token = new StringBuilder();
+        String lower = query.toLowerCase(Locale.ROOT);
+
+        for (int i = 0; i <= lower.length(); i++) {
+            char c = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (!token.isEmpty()) {
+                if (!out.isEmpty()) out.append(" & ");
+                out.append(token).append(":*");
+                token.setLength(0);
+            }
+        }
+        return out.toString();
+    }
+
+    /** Patrón LIKE '%q%' con comodines escapados; usa el índice de trigramas. */
+    public static String toLikePattern(String query) {
+        if (query == null) return "%";
+        String escaped = query.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -26,10 +26,8 @@ public class DocumentSpecification {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            // Evita duplicados en count query de paginación
-            if (query != null) {
-                query.distinct(true);
-            }
+            // Sin distinct: todos los predicados son sobre columnas de documents
+            // (no hay joins que dupliquen filas) y DISTINCT encarece el COUNT.
 
             // Siempre: owner + no eliminado
             predicates.add(cb.equal(root.get("ownerUserId"), ownerId));
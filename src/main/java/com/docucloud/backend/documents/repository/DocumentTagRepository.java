@@ -3,8 +3,11 @@ package com.docucloud.backend.documents.repository;
 import com.docucloud.backend.documents.model.DocumentTag;
 import com.docucloud.backend.documents.model.DocumentTagId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +25,20 @@ public interface DocumentTagRepository extends JpaRepository<DocumentTag, Docume
 
     // NUEVO — batch: todos los tags de múltiples documentos en 1 query
     List<DocumentTag> findByDocumentIdIn(List<Long> documentIds);
+
+    // Batch con ownership en la misma query: solo toca las filas pedidas
+    // (PK document_tags(document_id, tag_id) + PK documents).
+    @Query("""
+            SELECT new com.docucloud.backend.documents.repository.DocumentTagRow(d.id, t.id, t.name)
+            FROM DocumentTag dt
+            JOIN dt.document d
+            JOIN dt.tag t
+            WHERE d.id IN :documentIds
+              AND d.ownerUserId = :ownerUserId
+              AND d.deletedAt IS NULL
+            ORDER BY d.id, t.name
+            """)
+    List<DocumentTagRow> findTagRowsByOwnedDocumentIds(
+            @Param("ownerUserId") Long ownerUserId,
+            @Param("documentIds") Collection<Long> documentIds);
 }
\ No newline at end of file
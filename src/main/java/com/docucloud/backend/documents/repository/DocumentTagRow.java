@@ -0,0 +1,8 @@
+package com.docucloud.backend.documents.repository;
+
+/**
+ * Fila plana (documento, tag) para el batch de tags: evita hidratar
+ * entidades DocumentTag/Document/Tag solo para leer tres columnas.
+ */
+public record DocumentTagRow(Long documentId, Long tagId, String tagName) {
+}
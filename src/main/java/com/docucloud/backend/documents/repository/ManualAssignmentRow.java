@@ -0,0 +1,8 @@
+package com.docucloud.backend.documents.repository;
+
+/**
+ * Categoría puesta a mano por el usuario y el nombre del archivo: el
+ * material de entrenamiento de LocalCategoryClassifier.
+ */
+public record ManualAssignmentRow(Long categoryId, String fileName) {
+}
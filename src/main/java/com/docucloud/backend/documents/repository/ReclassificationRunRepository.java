@@ -0,0 +1,29 @@
+package com.docucloud.backend.documents.repository;
+
+import com.docucloud.backend.documents.model.ReclassificationRun;
+import com.docucloud.backend.documents.model.ReclassificationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReclassificationRunRepository extends JpaRepository<ReclassificationRun, Long> {
+
+    boolean existsByTargetUserIdAndStatus(Long targetUserId, ReclassificationStatus status);
+
+    List<ReclassificationRun> findTop20ByOrderByStartedAtDesc();
+
+    // La ejecución activa que lleva más tiempo sin avanzar (reparto entre usuarios).
+    // SKIP LOCKED: con varias instancias cada una avanza una distinta.
+    @Query(value = """
+            SELECT * FROM reclassification_runs
+            WHERE status = 'RUNNING'
+            ORDER BY updated_at
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<ReclassificationRun> lockNextRunning();
+}
@@ -0,0 +1,8 @@
+package com.docucloud.backend.documents.repository;
+
+/**
+ * Dónde está guardado un documento: lo justo para abrir el objeto en S3
+ * sin hidratar la entidad Document.
+ */
+public record StoredObjectRow(Long documentId, String s3Bucket, String s3Key, String mimeType) {
+}
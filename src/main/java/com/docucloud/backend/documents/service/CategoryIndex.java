@@ -0,0 +1,94 @@
+package com.docucloud.backend.documents.service;
+
+import com.docucloud.backend.documents.repository.CategoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Índice en memoria de las categorías de cada usuario (nombre sin mayúsculas
+ * → id, e id → nombre). Resolver una predicción del classifier o comprobar
+ * que una categoría es del usuario no necesita ninguna query; la entidad se
+ * obtiene con getReferenceById.
+ *
+ * Se carga con 1 query por usuario y se invalida tras el commit de cualquier
+ * alta, edición o borrado de categorías (CategoryService).
+ */
+@Component
+public class CategoryIndex {
+
+    private final CategoryRepository categoryRepository;
+    private final Cache<Long, UserCategories> index;
+
+    public CategoryIndex(
+            CategoryRepository categoryRepository,
+            @Value("${app.categories.index.max-users:10000}") long maxUsers,
+            @Value("${app.categories.index.ttl-minutes:30}") long ttlMinutes) {
+        this.categoryRepository = categoryRepository;
+        this.index = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    /** Categoría del usuario por nombre, sin distinguir mayúsculas; null si no existe. */
+    public CategoryRef findByName(Long userId, String name) {
+        if (name == null) return null;
+        return forUser(userId).byName().get(name.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /** Categoría por id solo si pertenece al usuario; null en otro caso. */
+    public CategoryRef findById(Long userId, Long categoryId) {
+        if (categoryId == null) return null;
+        return forUser(userId).byId().get(categoryId);
+    }
+
+    public int count(Long userId) {
+        return forUser(userId).byId().size();
+    }
+
+    public void evictAfterCommit(Long userId) {
+        if (userId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            index.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index.invalidate(userId);
+            }
+        });
+    }
+
+    private UserCategories forUser(Long userId) {
+        return index.get(userId, this::load);
+    }
+
+    private UserCategories load(Long userId) {
+        Map<String, CategoryRef> byName = new HashMap<>();
+        Map<Long, CategoryRef> byId = new HashMap<>();
+        for (Object[] row : categoryRepository.findIdAndNameByOwnerUserId(userId)) {
+            CategoryRef ref = new CategoryRef((Long) row[0], (String) row[1]);
+            byId.put(ref.id(), ref);
+            // Con nombres que solo difieren en mayúsculas gana el de menor id,
+            // igual que devolvería la query IgnoreCase ordenada por PK
+            byName.merge(ref.name().trim().toLowerCase(Locale.ROOT), ref,
+                    (a, b) -> a.id() <= b.id() ? a : b);
+        }
+        return new UserCategories(Collections.unmodifiableMap(byName), Collections.unmodifiableMap(byId));
+    }
+
+    public record CategoryRef(Long id, String name) {}
+
+    private record UserCategories(Map<String, CategoryRef> byName, Map<Long, CategoryRef> byId) {}
+}
@@ -34,6 +34,10 @@ public class CategoryService {
     private final DocumentCategoryRepository   documentCategoryRepository;
     private final AuditService                 auditService;
     private final ObjectMapper                 objectMapper;
+    private final DocumentCountCache           countCache;
+    private final LocalCategoryClassifier      localClassifier;
+    private final CategoryIndex                categoryIndex;
+    private final ClassificationStatsService   statsService;
 
     // ─── Categorías por defecto ───────────────────────────────────────────────
 
@@ -49,6 +53,8 @@ public class CategoryService {
                 buildCategory(user.getId(), "Otros",     "#8b5cf6")
         );
         categoryRepository.saveAll(defaults);   // ✅ 1 sola query en vez de 7
+        categoryIndex.evictAfterCommit(user.getId());
+        statsService.categoriesChanged(user.getId(), defaults.size());
     }
 
     private Category buildCategory(Long userId, String name, String color) {
@@ -95,6 +101,8 @@ public class CategoryService {
         category.setName(request.name().trim());
         category.setColor(request.color());
         category = categoryRepository.save(category);
+        categoryIndex.evictAfterCommit(userId);
+        statsService.categoriesChanged(userId, 1);
 
         log.info("🏷️ Category created - user={} name={}", userId, request.name());
         return CategoryResponse.from(category, 0L);
@@ -114,6 +122,7 @@ public class CategoryService {
         category.setName(request.name().trim());
         category.setColor(request.color());
         categoryRepository.save(category);
+        categoryIndex.evictAfterCommit(userId);
 
         log.info("✏️ Category updated - user={} categoryId={}", userId, categoryId);
 
@@ -137,6 +146,11 @@ public class CategoryService {
             // ✅ Una sola query DELETE en vez de N deletes individuales
             documentCategoryRepository.deleteByCategory_Id(categoryId);
             categoryRepository.delete(category);
+            countCache.evictAfterCommit(userId);
+            localClassifier.forgetCategoryAfterCommit(userId, categoryId);
+            categoryIndex.evictAfterCommit(userId);
+            // Desclasifica N documentos de golpe: se recuenta en lugar de calcular el delta
+            statsService.reconcile(userId);
             log.info("🗑️ Category deleted - user={} categoryId={}", userId, categoryId);
         } catch (Exception ex) {
             success = false;
@@ -160,6 +174,10 @@ public class CategoryService {
 
         documentCategoryRepository.deleteByCategory_IdIn(ids);
         categoryRepository.deleteAll(categories);
+        countCache.evictAfterCommit(userId);
+        localClassifier.evictAfterCommit(userId);
+        categoryIndex.evictAfterCommit(userId);
+        statsService.reconcile(userId);
 
         log.info("🗑️ Categorías eliminadas para userId={} → {} categorías", userId, categories.size());
     }
@@ -168,10 +186,11 @@ public class CategoryService {
 
     @Transactional
     public void assignCategory(Long userId, Long documentId, Long categoryId) {
-        Category category = categoryRepository
-                .findByIdAndOwnerUserId(categoryId, userId)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND, "Categoría no encontrada"));
+        // Propiedad comprobada en memoria; la referencia no lanza SELECT
+        if (categoryIndex.findById(userId, categoryId) == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Categoría no encontrada");
+        }
+        Category category = categoryRepository.getReferenceById(categoryId);
 
         Document doc = documentRepository
                 .findByIdAndOwnerUserIdAndDeletedAtIsNull(documentId, userId)
@@ -179,14 +198,19 @@ public class CategoryService {
                         HttpStatus.NOT_FOUND, "Documento no encontrado"));
 
         DocumentCategory classification = doc.getClassification();
+        Long previousManualId = manualCategoryId(classification);
         if (classification == null) {
             classification = new DocumentCategory();
             classification.setDocument(doc);
+            statsService.classifiedChanged(userId, 1);
         }
         classification.setCategory(category);
         classification.setIsAutomaticallyAssigned(false);
         classification.setConfidenceScore(null);
         documentCategoryRepository.save(classification);
+        countCache.evictAfterCommit(userId);
+        // La asignación manual es la señal de entrenamiento del modelo local
+        localClassifier.learnAfterCommit(userId, doc.getFileName(), categoryId, previousManualId);
 
         log.info("📂 Category assigned - user={} doc={} category={}", userId, documentId, categoryId);
     }
@@ -195,12 +219,27 @@ public class CategoryService {
 
     @Transactional
     public void removeCategory(Long userId, Long documentId) {
-        documentRepository
+        Document doc = documentRepository
                 .findByIdAndOwnerUserIdAndDeletedAtIsNull(documentId, userId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Documento no encontrado"));
 
+        Long previousManualId = manualCategoryId(doc.getClassification());
+        boolean wasClassified = doc.getClassification() != null;
         documentCategoryRepository.deleteByDocument_Id(documentId);
+        countCache.evictAfterCommit(userId);
+        if (wasClassified) statsService.classifiedChanged(userId, -1);
+        if (previousManualId != null) {
+            localClassifier.learnAfterCommit(userId, doc.getFileName(), null, previousManualId);
+        }
         log.info("📂 Category removed - user={} doc={}", userId, documentId);
     }
+
+    private static Long manualCategoryId(DocumentCategory classification) {
+        if (classification == null || classification.getCategory() == null
+                || !Boolean.FALSE.equals(classification.getIsAutomaticallyAssigned())) {
+            return null;
+        }
+        return classification.getCategory().getId();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,369 @@
+package com.docucloud.backend.documents.service;
+
+import com.docucloud.backend.config.AsyncConfig;
+import com.docucloud.backend.config.HttpClientConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batching hacia el classifier: acumula documentos pendientes durante
+ * {@code linger-ms} o hasta {@code max-size} y los envía en un solo
+ * POST /classify/batch. Cada resultado se aplica en su propia transacción
+ * (ClassifierService.applyPrediction / applyFailure), así un fallo en un
+ * documento no revierte los demás.
+ *
+ * Si el classifier no expone /classify/batch (404/405) se vuelve a
+ * POST /classify por documento.
+ *
+ * Errores: un 4xx de un documento es definitivo (FAILED); timeouts, 5xx,
+ * red caída y los 4xx que hablan del classifier y no del documento (401,
+ * 403, 408, 413, 429) son transitorios: el job se reprograma con backoff
+ * (ClassificationJobService.retryLater) y cuentan como fallo en el circuit
+ * breaker. Un 4xx de /classify/batch no condena al lote entero: se repite
+ * documento a documento para saber cuál falla. Con el circuit breaker
+ * abierto no se llama al classifier y el lote se aplaza sin gastar intentos.
+ *
+ * Antes de salir a la red se prueba el modelo local del usuario
+ * (LocalCategoryClassifier) y después ClassificationResultCache (firma del
+ * nombre de archivo); solo los fallos de caché llegan al classifier.
+ *
+ * Con classifier.content.enabled cada item lleva además "text": los primeros
+ * KB del archivo (ContentSnippetExtractor, lectura por rango). En ese modo
+ * la caché por nombre no se usa: dos archivos con el mismo nombre pueden
+ * tener contenidos distintos.
+ *
+ * Los lotes se ejecutan en el pool acotado "classificationExecutor"; si está
+ * saturado, el propio hilo del batcher procesa el lote y deja de drenar la
+ * cola mientras tanto (backpressure).
+ */
+@Slf4j
+@Component
+public class ClassificationBatcher implements SmartLifecycle {
+
+    private final ClassifierService classifierService;
+    private final ClassificationJobService jobService;
+    private final ClassifierCircuitBreaker circuitBreaker;
+    private final ClassificationResultCache resultCache;
+    private final LocalCategoryClassifier localClassifier;
+    private final ContentSnippetExtractor contentExtractor;
+    private final RestTemplate restTemplate;
+    private final TaskExecutor executor;
+    private final String classifierUrl;
+    private final int maxBatchSize;
+    private final long lingerMs;
+
+    private final BlockingQueue<Job> queue;
+    private volatile boolean batchEndpointAvailable = true;
+    private volatile boolean running;
+    private Thread worker;
+
+    public ClassificationBatcher(
+            ClassifierService classifierService,
+            ClassificationJobService jobService,
+            ClassifierCircuitBreaker circuitBreaker,
+            ClassificationResultCache resultCache,
+            LocalCategoryClassifier localClassifier,
+            ContentSnippetExtractor contentExtractor,
+            @Qualifier(HttpClientConfig.CLASSIFIER_REST_TEMPLATE) RestTemplate restTemplate,
+            @Qualifier(AsyncConfig.CLASSIFICATION_EXECUTOR) TaskExecutor executor,
+            @Value("${classifier.url:http://localhost:8001}") String classifierUrl,
+            @Value("${classifier.batch.max-size:32}") int maxBatchSize,
+            @Value("${classifier.batch.linger-ms:25}") long lingerMs,
+            @Value("${classifier.batch.queue-capacity:10000}") int queueCapacity) {
+        this.classifierService = classifierService;
+        this.jobService = jobService;
+        this.circuitBreaker = circuitBreaker;
+        this.resultCache = resultCache;
+        this.localClassifier = localClassifier;
+        this.contentExtractor = contentExtractor;
+        this.restTemplate = restTemplate;
+        this.executor = executor;
+        this.classifierUrl = classifierUrl;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerMs = Math.max(0, lingerMs);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Encola un documento con job en classification_jobs. Llamar después del
+     * commit. Si la cola en memoria está llena no se pierde nada: el job
+     * vence y lo recoge el drenado periódico.
+     */
+    public void submit(Long documentId, String fileName, Long userId) {
+        if (!queue.offer(new Job(documentId, fileName, userId))) {
+            log.warn("⚠️ Cola de clasificación llena, doc={} queda para el drenado", documentId);
+        }
+    }
+
+    // ─── Bucle de envío ───────────────────────────────────────────────────────
+
+    private void runLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Job first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                List<Job> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    Job next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                executor.execute(() -> dispatch(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("❌ Error inesperado en el batcher de clasificación", e);
+            }
+        }
+    }
+
+    private void dispatch(List<Job> batch) {
+        Outcome outcome = new Outcome();
+        boolean byContent = contentExtractor.isEnabled();
+        List<Job> misses = new ArrayList<>(batch.size());
+        for (Job job : batch) {
+            LocalCategoryClassifier.Guess local = localClassifier.predict(job.userId(), job.fileName());
+            if (local != null) {
+                outcome.localGuesses.put(job.documentId(), local);
+                continue;
+            }
+            ClassificationResultCache.CachedPrediction cached = byContent ? null : resultCache.get(job.fileName());
+            if (cached != null) {
+                outcome.predictions.put(job.documentId(), new Prediction(cached.category(), cached.confidence()));
+                outcome.cacheHits++;
+            } else {
+                misses.add(job);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            // El circuito se consulta antes de leer de S3: abierto, el lote se aplaza sin coste
+            if (!circuitBreaker.allowRequest()) {
+                misses.forEach(j -> outcome.skipped.add(j.documentId()));
+            } else {
+                if (byContent) {
+                    outcome.texts.putAll(contentExtractor.extract(misses.stream().map(Job::documentId).toList()));
+                }
+                callClassifier(misses, outcome);
+            }
+        }
+        apply(batch, outcome);
+    }
+
+    // Solo con allowRequest() ya concedido (dispatch)
+    private void callClassifier(List<Job> batch, Outcome outcome) {
+        if (batchEndpointAvailable && batch.size() > 1) {
+            try {
+                outcome.predictions.putAll(callBatch(batch, outcome.texts));
+                circuitBreaker.recordSuccess();
+            } catch (HttpClientErrorException e) {
+                if (isTransient(e) && e.getStatusCode() != HttpStatus.PAYLOAD_TOO_LARGE) {
+                    circuitBreaker.recordFailure();
+                    log.warn("⚠️ Classifier rechazó un lote de {} docs ({}), se reintentará",
+                            batch.size(), e.getStatusCode());
+                    batch.forEach(j -> outcome.transientFailures.put(j.documentId(), e.getMessage()));
+                } else {
+                    if (e.getStatusCode() == HttpStatus.NOT_FOUND
+                            || e.getStatusCode() == HttpStatus.METHOD_NOT_ALLOWED) {
+                        log.info("ℹ️ Classifier sin /classify/batch, usando /classify por documento");
+                        batchEndpointAvailable = false;
+                    } else {
+                        // Otro 4xx (o 413 por el tamaño del lote): cada documento recibe su propio resultado
+                        log.warn("⚠️ /classify/batch respondió {}, reintentando documento a documento",
+                                e.getStatusCode());
+                    }
+                    circuitBreaker.recordSuccess();
+                    callOneByOne(batch, outcome);
+                }
+            } catch (Exception e) {
+                circuitBreaker.recordFailure();
+                log.warn("⚠️ Classifier falló para un lote de {} docs: {}", batch.size(), e.getMessage());
+                batch.forEach(j -> outcome.transientFailures.put(j.documentId(), e.getMessage()));
+            }
+        } else {
+            callOneByOne(batch, outcome);
+        }
+
+        if (contentExtractor.isEnabled()) return;
+        for (Job job : batch) {
+            Prediction p = outcome.predictions.get(job.documentId());
+            if (p != null) {
+                resultCache.put(job.fileName(), p.category(), p.confidence());
+            }
+        }
+    }
+
+    private void apply(List<Job> batch, Outcome outcome) {
+        List<Long> postponed = new ArrayList<>();
+        for (Job job : batch) {
+            Long id = job.documentId();
+            try {
+                Prediction p = outcome.predictions.get(id);
+                LocalCategoryClassifier.Guess local = outcome.localGuesses.get(id);
+                if (local != null) {
+                    classifierService.applyLocalPrediction(id, job.userId(), local.categoryId(), local.confidence());
+                } else if (p != null) {
+                    classifierService.applyPrediction(id, job.userId(), p.category(), p.confidence());
+                } else if (outcome.permanent.containsKey(id)) {
+                    classifierService.applyFailure(id, outcome.permanent.get(id));
+                } else if (outcome.skipped.contains(id)) {
+                    postponed.add(id);
+                } else {
+                    jobService.retryLater(id,
+                            outcome.transientFailures.getOrDefault(id, "Sin resultado del classifier"));
+                }
+            } catch (Exception e) {
+                log.warn("⚠️ No se pudo aplicar la clasificación doc={}: {}", id, e.getMessage());
+            }
+        }
+        if (!postponed.isEmpty()) {
+            try {
+                jobService.postpone(postponed, circuitBreaker.retryAt());
+            } catch (Exception e) {
+                // El lease del job ya cubre este caso: vencerá y lo recogerá el drenado
+                log.warn("⚠️ No se pudieron aplazar {} docs: {}", postponed.size(), e.getMessage());
+            }
+        }
+        log.info("🧠 Lote de clasificación procesado - docs={} local={} ok={} cache={} batchEndpoint={}",
+                batch.size(), outcome.localGuesses.size(), outcome.predictions.size(),
+                outcome.cacheHits, batchEndpointAvailable);
+    }
+
+    private Map<Long, Prediction> callBatch(List<Job> batch, Map<Long, String> texts) {
+        List<Map<String, Object>> items = batch.stream()
+                .map(j -> item(j, texts.get(j.documentId())))
+                .toList();
+
+        BatchResponse resp = restTemplate.postForObject(
+                classifierUrl + "/classify/batch",
+                Map.of("items", items),
+                BatchResponse.class);
+
+        Map<Long, Prediction> out = new HashMap<>();
+        if (resp != null && resp.results() != null) {
+            for (BatchResult r : resp.results()) {
+                if (r.id() != null) out.put(r.id(), new Prediction(r.category(), r.confidence()));
+            }
+        }
+        return out;
+    }
+
+    // Si el circuito se abre a mitad del lote, el resto no se llama y se aplaza
+    private void callOneByOne(List<Job> batch, Outcome outcome) {
+        boolean first = true;
+        for (Job job : batch) {
+            // El primero ya pasó por allowRequest en dispatch
+            if (!first && !circuitBreaker.allowRequest()) {
+                outcome.skipped.add(job.documentId());
+                continue;
+            }
+            first = false;
+            try {
+                Prediction p = restTemplate.postForObject(
+                        classifierUrl + "/classify",
+                        item(job, outcome.texts.get(job.documentId())),
+                        Prediction.class);
+                circuitBreaker.recordSuccess();
+                outcome.predictions.put(job.documentId(), p != null ? p : new Prediction(null, 0.0));
+            } catch (HttpClientErrorException e) {
+                if (isTransient(e)) {
+                    circuitBreaker.recordFailure();
+                    outcome.transientFailures.put(job.documentId(), e.getMessage());
+                } else {
+                    circuitBreaker.recordSuccess();
+                    outcome.permanent.put(job.documentId(), e.getMessage());
+                }
+            } catch (Exception e) {
+                circuitBreaker.recordFailure();
+                outcome.transientFailures.put(job.documentId(), e.getMessage());
+            }
+        }
+    }
+
+    // 4xx que no dependen del documento: credenciales, límite de peticiones,
+    // timeout o cuerpo demasiado grande. Se reintentan en lugar de marcar FAILED
+    private static boolean isTransient(HttpClientErrorException e) {
+        int status = e.getStatusCode().value();
+        return status == 401 || status == 403 || status == 408 || status == 413 || status == 429;
+    }
+
+    // "text" solo viaja si hay contenido extraído; sin él el classifier usa el nombre
+    private static Map<String, Object> item(Job job, String text) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("id", job.documentId());
+        item.put("file_name", job.fileName());
+        if (text != null) item.put("text", text);
+        return item;
+    }
+
+    // ─── Ciclo de vida ────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "classifier-batcher");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Al parar se vacía lo que quede en cola antes de cerrar el contexto
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ─── DTOs del protocolo ───────────────────────────────────────────────────
+
+    private record Job(Long documentId, String fileName, Long userId) {}
+
+    private static final class Outcome {
+        final Map<Long, LocalCategoryClassifier.Guess> localGuesses = new HashMap<>();
+        final Map<Long, Prediction> predictions = new HashMap<>();
+        final Map<Long, String> permanent = new HashMap<>();
+        final Map<Long, String> transientFailures = new HashMap<>();
+        final Set<Long> skipped = new HashSet<>();
+        final Map<Long, String> texts = new HashMap<>();
+        int cacheHits;
+    }
+
+    private record Prediction(String category, double confidence) {}
+
+    private record BatchResult(Long id, String category, double confidence) {}
+
+    private record BatchResponse(List<BatchResult> results) {}
+}
@@ -0,0 +1,54 @@
+package com.docucloud.backend.documents.service;
+
+import com.docucloud.backend.documents.service.ClassificationJobService.PendingClassification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Drenado periódico de classification_jobs: cada tick reclama como mucho
+ * {@code drain-batch} jobs vencidos y los pasa al batcher. El tope por tick
+ * y el circuit breaker evitan que una cola acumulada golpee de golpe al
+ * classifier cuando vuelve.
+ */
+@Slf4j
+@Component
+public class ClassificationJobDrainer {
+
+    private final ClassificationJobService jobService;
+    private final ClassificationBatcher batcher;
+    private final ClassifierCircuitBreaker circuitBreaker;
+    private final int drainBatch;
+
+    public ClassificationJobDrainer(
+            ClassificationJobService jobService,
+            ClassificationBatcher batcher,
+            ClassifierCircuitBreaker circuitBreaker,
+            @Value("${classifier.retry.drain-batch:100}") int drainBatch) {
+        this.jobService = jobService;
+        this.batcher = batcher;
+        this.circuitBreaker = circuitBreaker;
+        this.drainBatch = Math.max(1, drainBatch);
+    }
+
+    @Scheduled(
+            initialDelayString = "${classifier.retry.poll-ms:5000}",
+            fixedDelayString = "${classifier.retry.poll-ms:5000}")
+    public void drain() {
+        if (circuitBreaker.isOpen()) return;
+        try {
+            List<PendingClassification> due = jobService.claimDue(drainBatch);
+            if (due.isEmpty()) return;
+
+            log.info("🔁 Reencolando {} clasificaciones pendientes", due.size());
+            for (PendingClassification p : due) {
+                batcher.submit(p.documentId(), p.fileName(), p.userId());
+            }
+        } catch (Exception e) {
+            log.error("❌ Error drenando classification_jobs", e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.docucloud.backend.documents.service;
+
+import com.docucloud.backend.documents.model.ClassificationJob;
+import com.docucloud.backend.documents.model.Document;
+import com.docucloud.backend.documents.repository.ClassificationJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cola persistente de clasificación (tabla classification_jobs).
+ *
+ * El job nace con un lease: durante {@code lease-seconds} lo procesa el envío
+ * inmediato post-commit. Si la app se cae o el classifier falla, el job vence
+ * y lo recoge {@link ClassificationJobDrainer}. Cada fallo transitorio
+ * reprograma el job con backoff exponencial y jitter; solo tras
+ * {@code max-attempts} el documento pasa a FAILED.
+ */
+@Slf4j
+@Service
+public class ClassificationJobService {
+
+    private final ClassificationJobRepository jobRepo;
+    private final ClassifierService classifierService;
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final Duration lease;
+
+    public ClassificationJobService(
+            ClassificationJobRepository jobRepo,
+            ClassifierService classifierService,
+            @Value("${classifier.retry.max-attempts:8}") int maxAttempts,
+            @Value("${classifier.retry.base-seconds:30}") long baseSeconds,
+            @Value("${classifier.retry.max-seconds:1800}") long maxSeconds,
+            @Value("${classifier.retry.lease-seconds:120}") long leaseSeconds) {
+        this.jobRepo = jobRepo;
+        this.classifierService = classifierService;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelay = Duration.ofSeconds(baseSeconds);
+        this.maxDelay = Duration.ofSeconds(maxSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    /** Se llama dentro de la transacción del upload: job y documento se confirman juntos. */
+    @Transactional
+    public void enqueue(Document doc) {
+        ClassificationJob job = jobRepo.findByDocumentId(doc.getId()).orElseGet(ClassificationJob::new);
+        job.setDocumentId(doc.getId());
+        job.setOwnerUserId(doc.getOwnerUserId());
+        job.setFileName(doc.getFileName());
+        job.setAttempts(0);
+        job.setLastError(null);
+        job.setNextAttemptAt(Instant.now().plus(lease));
+        jobRepo.save(job);
+    }
+
+    /** Toma hasta {@code limit} jobs vencidos y les renueva el lease. */
+    @Transactional
+    public List<PendingClassification> claimDue(int limit) {
+        Instant now = Instant.now();
+        List<ClassificationJob> due = jobRepo.lockDue(now, limit);
+        Instant leaseUntil = now.plus(lease);
+        for (ClassificationJob job : due) {
+            job.setNextAttemptAt(leaseUntil);
+        }
+        return due.stream()
+                .map(j -> new PendingClassification(j.getDocumentId(), j.getFileName(), j.getOwnerUserId()))
+                .toList();
+    }
+
+    /** Fallo transitorio (timeout, 5xx, sin respuesta): reintento con backoff o FAILED si se agotó. */
+    @Transactional
+    public void retryLater(Long documentId, String reason) {
+        ClassificationJob job = jobRepo.findByDocumentId(documentId).orElse(null);
+        if (job == null) return;
+
+        int attempts = job.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            log.warn("❌ Clasificación doc={} agotó {} intentos", documentId, attempts);
+            classifierService.applyFailure(documentId, reason);
+            return;
+        }
+
+        Duration delay = backoff(attempts);
+        job.setAttempts(attempts);
+        job.setLastError(reason);
+        job.setNextAttemptAt(Instant.now().plus(delay));
+        log.info("🔁 Clasificación doc={} reintento {} en {}s: {}",
+                documentId, attempts, delay.toSeconds(), reason);
+    }
+
+    /** Circuito abierto: se aplaza sin contar intento, el classifier ni se llamó. */
+    @Transactional
+    public void postpone(Collection<Long> documentIds, Instant until) {
+        for (ClassificationJob job : jobRepo.findAllByDocumentIdIn(documentIds)) {
+            job.setNextAttemptAt(jitter(until));
+        }
+    }
+
+    // Exponencial con "equal jitter": entre la mitad y el total del retardo,
+    // para que los documentos fallados a la vez no reintenten a la vez
+    private Duration backoff(int attempts) {
+        long exp = baseDelay.toMillis() << Math.min(attempts - 1, 20);
+        long capped = Math.min(exp, maxDelay.toMillis());
+        long half = capped / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private Instant jitter(Instant until) {
+        return until.plusMillis(ThreadLocalRandom.current().nextLong(Math.max(1, baseDelay.toMillis())));
+    }
+
+    public record PendingClassification(Long documentId, String fileName, Long userId) {}
+}
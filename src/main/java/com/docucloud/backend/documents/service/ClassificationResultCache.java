@@ -0,0 +1,86 @@
+package com.docucloud.backend.documents.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Resultados del classifier por firma de nombre de archivo. El classifier
+ * solo recibe file_name, así que "Factura_2024_03.pdf" y "Factura_2025_01.pdf"
+ * dan la misma predicción: se normalizan a "factura_#_#.pdf" y la segunda
+ * no sale a la red.
+ *
+ * Se guarda la categoría cruda (sin resolver contra las categorías del
+ * usuario), por eso la caché es global y no por usuario.
+ *
+ * Métricas: cache.gets{cache=classifier.results,result=hit|miss},
+ * cache.evictions, cache.size. Ver /actuator/metrics/cache.gets.
+ */
+@Component
+public class ClassificationResultCache {
+
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s_\\-.()\\[\\]]+");
+    private static final Pattern EDGE_SEPARATORS = Pattern.compile("^_+|_+$");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final Cache<String, CachedPrediction> cache;
+
+    public ClassificationResultCache(
+            @Value("${classifier.cache.max-size:10000}") long maxSize,
+            @Value("${classifier.cache.ttl-minutes:60}") long ttlMinutes,
+            MeterRegistry meterRegistry) {
+        // TTL para que un reentrenamiento del classifier se note sin reiniciar
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "classifier.results");
+    }
+
+    public CachedPrediction get(String fileName) {
+        return cache.getIfPresent(signature(fileName));
+    }
+
+    public void put(String fileName, String category, double confidence) {
+        // Sin categoría no se cachea: puede ser un fallo puntual del modelo
+        if (category == null || category.isBlank()) return;
+        cache.put(signature(fileName), new CachedPrediction(category, confidence));
+    }
+
+    /** Tras reentrenar el classifier las predicciones guardadas ya no valen. */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Firma del nombre: minúsculas, sin tildes, cada grupo de dígitos
+     * (años, fechas, contadores, "(1)") colapsado a '#' y separadores
+     * unificados a '_'. La extensión se conserva porque el classifier la usa.
+     */
+    static String signature(String fileName) {
+        if (fileName == null) return "";
+        String name = fileName.trim().toLowerCase(Locale.ROOT);
+        String ext = "";
+        int dot = name.lastIndexOf('.');
+        if (dot > 0 && dot < name.length() - 1) {
+            ext = name.substring(dot);
+            name = name.substring(0, dot);
+        }
+        name = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        name = DIGITS.matcher(name).replaceAll("#");
+        name = SEPARATORS.matcher(name).replaceAll("_");
+        return EDGE_SEPARATORS.matcher(name).replaceAll("") + ext;
+    }
+
+    public record CachedPrediction(String category, double confidence) {}
+}
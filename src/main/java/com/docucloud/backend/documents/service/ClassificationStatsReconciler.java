@@ -0,0 +1,53 @@
+package com.docucloud.backend.documents.service;
+
+import com.docucloud.backend.documents.repository.ClassificationStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Recalcula classification_stats de todos los usuarios por lotes de ids
+ * (keyset sobre users.id), cada lote en su transacción. Corrige la deriva
+ * de cualquier escritura que no pase por ClassificationStatsService.
+ */
+@Slf4j
+@Component
+public class ClassificationStatsReconciler {
+
+    private final ClassificationStatsRepository statsRepo;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+
+    public ClassificationStatsReconciler(
+            ClassificationStatsRepository statsRepo,
+            TransactionTemplate tx,
+            @Value("${app.classification-stats.reconcile-batch:500}") int batchSize) {
+        this.statsRepo = statsRepo;
+        this.tx = tx;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(cron = "${app.classification-stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        long started = System.currentTimeMillis();
+        long afterId = 0;
+        int users = 0;
+        try {
+            while (true) {
+                List<Long> ids = statsRepo.findUserIdsAfter(afterId, batchSize);
+                if (ids.isEmpty()) break;
+                tx.executeWithoutResult(status -> statsRepo.reconcile(ids));
+                users += ids.size();
+                afterId = ids.get(ids.size() - 1);
+            }
+            log.info("📊 classification_stats reconciliado - users={} ms={}",
+                    users, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            log.error("❌ Error reconciliando classification_stats tras {} usuarios", users, e);
+        }
+    }
+}
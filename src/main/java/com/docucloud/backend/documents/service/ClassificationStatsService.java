@@ -0,0 +1,85 @@
+package com.docucloud.backend.documents.service;
+
+import com.docucloud.backend.documents.dto.response.ClassificationStatsResponse;
+import com.docucloud.backend.documents.model.ClassificationStats;
+import com.docucloud.backend.documents.model.DocumentStatus;
+import com.docucloud.backend.documents.repository.ClassificationStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Mantiene classification_stats con deltas en la transacción que provoca
+ * el cambio (alta/borrado de documento, clasificación, FAILED, categorías).
+ * Un delta es un UPDATE atómico sobre la fila del usuario: dos transacciones
+ * concurrentes no se pisan.
+ *
+ * La fila se crea (o se corrige) con reconcile: en la primera lectura de un
+ * usuario nuevo, tras operaciones masivas y en ClassificationStatsReconciler.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClassificationStatsService {
+
+    private final ClassificationStatsRepository statsRepo;
+
+    @Transactional
+    public ClassificationStatsResponse get(Long userId) {
+        ClassificationStats stats = statsRepo.findById(userId).orElse(null);
+        if (stats == null) {
+            statsRepo.reconcile(List.of(userId));
+            stats = statsRepo.findById(userId).orElse(null);
+            if (stats == null) return new ClassificationStatsResponse(0, 0, 0, 0, 0);
+        }
+
+        long total = stats.getTotalDocuments();
+        long classified = stats.getClassifiedDocuments();
+        long failed = stats.getFailedDocuments();
+        long pending = Math.max(0, total - classified - failed);
+        return new ClassificationStatsResponse(total, classified, pending, failed, stats.getCategoriesCount());
+    }
+
+    // ─── Deltas ───────────────────────────────────────────────────────────────
+
+    @Transactional
+    public void documentCreated(Long userId) {
+        apply(userId, 1, 0, 0, 0);
+    }
+
+    @Transactional
+    public void documentDeleted(Long userId, boolean classified, DocumentStatus status) {
+        apply(userId, -1, classified ? -1 : 0, status == DocumentStatus.FAILED ? -1 : 0, 0);
+    }
+
+    @Transactional
+    public void classifiedChanged(Long userId, long delta) {
+        apply(userId, 0, delta, 0, 0);
+    }
+
+    @Transactional
+    public void statusChanged(Long userId, DocumentStatus from, DocumentStatus to) {
+        if (from == to) return;
+        long failed = (to == DocumentStatus.FAILED ? 1 : 0) - (from == DocumentStatus.FAILED ? 1 : 0);
+        apply(userId, 0, 0, failed, 0);
+    }
+
+    @Transactional
+    public void categoriesChanged(Long userId, long delta) {
+        apply(userId, 0, 0, 0, delta);
+    }
+
+    /** Recalcula desde cero: para operaciones masivas donde el delta exacto cuesta más que recontar. */
+    @Transactional
+    public void reconcile(Long userId) {
+        statsRepo.reconcile(List.of(userId));
+    }
+
+    private void apply(Long userId, long total, long classified, long failed, long categories) {
+        if (userId == null || (total | classified | failed | categories) == 0) return;
+        statsRepo.applyDelta(userId, total, classified, failed, categories);
+    }
+}
@@ -0,0 +1,83 @@
+package com.docucloud.backend.documents.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker alrededor de las llamadas al classifier.
+ *
+ * CLOSED: las llamadas pasan; {@code failure-threshold} fallos seguidos lo abren.
+ * OPEN: no se llama al classifier durante {@code open-seconds}; los jobs se
+ * reprograman sin gastar intentos.
+ * HALF_OPEN: pasa una sola llamada de prueba; si va bien se cierra, si falla
+ * vuelve a OPEN. Así, al recuperarse el classifier no le llega de golpe
+ * toda la cola acumulada.
+ */
+@Slf4j
+@Component
+public class ClassifierCircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAt;
+
+    public ClassifierCircuitBreaker(
+            @Value("${classifier.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${classifier.circuit.open-seconds:30}") long openSeconds,
+            MeterRegistry meterRegistry) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMillis = openSeconds * 1000;
+        Gauge.builder("classifier.circuit.open", () -> state.get() == State.CLOSED ? 0 : 1)
+                .description("1 si el circuit breaker del classifier no está cerrado")
+                .register(meterRegistry);
+    }
+
+    /** true si se puede llamar al classifier. En HALF_OPEN solo el primero que pregunta. */
+    public boolean allowRequest() {
+        State current = state.get();
+        if (current == State.CLOSED) return true;
+        if (current == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis) {
+            return state.compareAndSet(State.OPEN, State.HALF_OPEN);
+        }
+        return false;
+    }
+
+    /** true mientras dure la ventana OPEN (el drenado no reclama jobs). */
+    public boolean isOpen() {
+        return state.get() == State.OPEN && System.currentTimeMillis() - openedAt < openMillis;
+    }
+
+    /** Cuándo tiene sentido volver a intentar con el circuito abierto. */
+    public Instant retryAt() {
+        return Instant.ofEpochMilli(Math.max(openedAt + openMillis, System.currentTimeMillis() + openMillis / 2));
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("✅ Classifier recuperado, circuit breaker CERRADO");
+        }
+    }
+
+    public void recordFailure() {
+        if (state.get() == State.HALF_OPEN
+                || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = System.currentTimeMillis();
+            consecutiveFailures.set(0);
+            if (state.getAndSet(State.OPEN) != State.OPEN) {
+                log.warn("🔌 Classifier no responde, circuit breaker ABIERTO durante {}s", openMillis / 1000);
+            }
+        }
+    }
+}
@@ -6,18 +6,15 @@ import com.docucloud.backend.documents.model.Document;
 import com.docucloud.backend.documents.model.DocumentCategory;
 import com.docucloud.backend.documents.model.DocumentStatus;
 import com.docucloud.backend.documents.repository.CategoryRepository;
+import com.docucloud.backend.documents.repository.ClassificationJobRepository;
 import com.docucloud.backend.documents.repository.DocumentCategoryRepository;
 import com.docucloud.backend.documents.repository.DocumentRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -29,17 +26,25 @@ public class ClassifierService {
     private final CategoryRepository categoryRepo;
     private final DocumentCategoryRepository docCatRepo;
     private final DocumentRepository documentRepo;
-    private final RestTemplate restTemplate;
+    private final DocumentCountCache countCache;
+    private final ClassificationJobRepository jobRepo;
+    private final CategoryIndex categoryIndex;
+    private final ClassificationStatsService statsService;
 
-    @Value("${classifier.url:http://localhost:8001}")
-    private String classifierUrl;
+    // ─── Aplicar resultados (llamado por ClassificationBatcher) ───────────────
+    // Cada documento en su propia transacción: un fallo no afecta al resto del lote.
+    // Aplicar un resultado (o un fallo definitivo) cierra el job de classification_jobs.
 
-    @Async
     @Transactional
-    public void classifyAndAssignAsync(Long documentId, String fileName, Long userId) {
-        Document doc = documentRepo.findById(documentId)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Documento no encontrado: " + documentId));
+    public void applyPrediction(Long documentId, Long userId, String rawCategory, double confidence) {
+        jobRepo.deleteByDocumentId(documentId);
+
+        // Borrados incluidos: no se "resucitan" a AVAILABLE ni cuentan en las stats
+        Document doc = documentRepo.findByIdAndDeletedAtIsNull(documentId).orElse(null);
+        if (doc == null) {
+            log.warn("⚠️ Doc {} ya no existe, se descarta la clasificación", documentId);
+            return;
+        }
 
         if (doc.getClassification() != null &&
                 Boolean.FALSE.equals(doc.getClassification().getIsAutomaticallyAssigned())) {
@@ -47,61 +52,66 @@ public class ClassifierService {
             return;
         }
 
-        try {
-            ClassifyResponse resp = callClassifier(fileName);
+        String predictedName = normalizeCategoryName(rawCategory);
+        ResolvedCategory resolved = resolvePredictedOrFallback(userId, predictedName);
 
-            String predictedName = normalizeCategoryName(resp.category());
-            double predictedConfidence = resp.confidence();
-
-            ResolvedCategory resolved = resolvePredictedOrFallback(userId, predictedName);
+        if (resolved.category() == null) {
+            markAsUnclassified(
+                    doc,
+                    "No existe categoría predicha ni fallback '" + FALLBACK_CATEGORY + "' para user=" + userId
+            );
+            return;
+        }
 
-            if (resolved.category() == null) {
-                markAsUnclassified(
-                        doc,
-                        "No existe categoría predicha ni fallback '" + FALLBACK_CATEGORY + "' para user=" + userId
-                );
-                return;
-            }
+        double appliedConfidence = resolved.fallbackUsed() ? 0.0 : confidence;
 
-            double appliedConfidence = resolved.fallbackUsed() ? 0.0 : predictedConfidence;
+        saveClassification(doc, categoryRepo.getReferenceById(resolved.category().id()), appliedConfidence);
 
-            saveClassification(doc, resolved.category(), appliedConfidence);
+        log.info(
+                "✅ Clasificación guardada: doc={} predicted='{}' assigned='{}' conf={}",
+                documentId,
+                predictedName,
+                resolved.category().name(),
+                appliedConfidence
+        );
+    }
 
-            log.info(
-                    "✅ Clasificación guardada: doc={} predicted='{}' assigned='{}' conf={}",
-                    documentId,
-                    predictedName,
-                    resolved.category().getName(),
-                    appliedConfidence
-            );
+    /**
+     * Resultado del modelo local (LocalCategoryClassifier): ya trae el id de
+     * una categoría del usuario, no hace falta resolver por nombre.
+     */
+    @Transactional
+    public void applyLocalPrediction(Long documentId, Long userId, Long categoryId, double confidence) {
+        jobRepo.deleteByDocumentId(documentId);
 
-        } catch (Exception e) {
-            markAsFailed(doc, e.getMessage());
-            log.warn("⚠️ Classifier falló para '{}': {}", fileName, e.getMessage(), e);
+        Document doc = documentRepo.findByIdAndDeletedAtIsNull(documentId).orElse(null);
+        if (doc == null) return;
+        if (doc.getClassification() != null &&
+                Boolean.FALSE.equals(doc.getClassification().getIsAutomaticallyAssigned())) {
+            return;
         }
-    }
 
-    @Transactional(readOnly = true)
-    public ClassificationStatsResponse getStats(Long userId) {
-        long total = documentRepo.countActiveByOwnerUserId(userId);
-        long classified = documentRepo.countClassifiedByOwnerUserId(userId);
-        long failed = documentRepo.countByOwnerUserIdAndStatusFiltered(userId, DocumentStatus.FAILED);
-        long pending = Math.max(0, total - classified - failed);
-        long categories = categoryRepo.countByOwnerUserId(userId);
+        CategoryIndex.CategoryRef category = categoryIndex.findById(userId, categoryId);
+        if (category == null) {
+            // Categoría borrada entre la predicción y ahora: que decida el remoto la próxima vez
+            markAsUnclassified(doc, "Categoría local " + categoryId + " ya no existe");
+            return;
+        }
 
-        return new ClassificationStatsResponse(total, classified, pending, failed, categories);
+        saveClassification(doc, categoryRepo.getReferenceById(category.id()), confidence);
+        log.info("⚡ Clasificación local: doc={} assigned='{}' conf={}",
+                documentId, category.name(), confidence);
     }
 
-    private ClassifyResponse callClassifier(String fileName) {
-        Map<String, String> payload = Map.of("file_name", fileName);
-
-        ClassifyResponse resp = restTemplate.postForObject(
-                classifierUrl + "/classify",
-                payload,
-                ClassifyResponse.class
-        );
+    @Transactional
+    public void applyFailure(Long documentId, String reason) {
+        jobRepo.deleteByDocumentId(documentId);
+        documentRepo.findByIdAndDeletedAtIsNull(documentId).ifPresent(doc -> markAsFailed(doc, reason));
+    }
 
-        return resp != null ? resp : new ClassifyResponse(null, 0.0);
+    // 1 lectura por PK de classification_stats (antes 4 COUNT sobre documents/categories)
+    public ClassificationStatsResponse getStats(Long userId) {
+        return statsService.get(userId);
     }
 
     private String normalizeCategoryName(String raw) {
@@ -109,20 +119,17 @@ public class ClassifierService {
         return raw.trim();
     }
 
+    // Sin queries: CategoryIndex resuelve nombre → categoría en memoria
     private ResolvedCategory resolvePredictedOrFallback(Long userId, String predictedName) {
         if (predictedName != null) {
-            Category predicted = categoryRepo
-                    .findByOwnerUserIdAndNameIgnoreCase(userId, predictedName)
-                    .orElse(null);
+            CategoryIndex.CategoryRef predicted = categoryIndex.findByName(userId, predictedName);
 
             if (predicted != null) {
                 return new ResolvedCategory(predicted, false);
             }
         }
 
-        Category otros = categoryRepo
-                .findByOwnerUserIdAndNameIgnoreCase(userId, FALLBACK_CATEGORY)
-                .orElse(null);
+        CategoryIndex.CategoryRef otros = categoryIndex.findByName(userId, FALLBACK_CATEGORY);
 
         if (otros != null) {
             return new ResolvedCategory(otros, true);
@@ -132,7 +139,9 @@ public class ClassifierService {
     }
 
     private void saveClassification(Document doc, Category category, double confidence) {
-        DocumentCategory dc = doc.getClassification() != null
+        boolean wasClassified = doc.getClassification() != null;
+        DocumentStatus previousStatus = doc.getStatus();
+        DocumentCategory dc = wasClassified
                 ? doc.getClassification()
                 : new DocumentCategory();
 
@@ -146,28 +155,37 @@ public class ClassifierService {
 
         docCatRepo.save(dc);
         documentRepo.save(doc);
+        countCache.evictAfterCommit(doc.getOwnerUserId());
+        if (!wasClassified) statsService.classifiedChanged(doc.getOwnerUserId(), 1);
+        statsService.statusChanged(doc.getOwnerUserId(), previousStatus, DocumentStatus.AVAILABLE);
     }
 
     private void markAsFailed(Document doc, String reason) {
+        DocumentStatus previousStatus = doc.getStatus();
         doc.setStatus(DocumentStatus.FAILED);
         documentRepo.save(doc);
+        countCache.evictAfterCommit(doc.getOwnerUserId());
+        statsService.statusChanged(doc.getOwnerUserId(), previousStatus, DocumentStatus.FAILED);
         log.warn("❌ Doc {} marcado como FAILED: {}", doc.getId(), reason);
     }
 
     private void markAsUnclassified(Document doc, String reason) {
         DocumentCategory existing = doc.getClassification();
+        DocumentStatus previousStatus = doc.getStatus();
 
         if (existing != null && Boolean.TRUE.equals(existing.getIsAutomaticallyAssigned())) {
             doc.setClassification(null);
             docCatRepo.delete(existing);
+            statsService.classifiedChanged(doc.getOwnerUserId(), -1);
         }
 
         doc.setStatus(DocumentStatus.AVAILABLE);
         documentRepo.save(doc);
+        countCache.evictAfterCommit(doc.getOwnerUserId());
+        statsService.statusChanged(doc.getOwnerUserId(), previousStatus, DocumentStatus.AVAILABLE);
 
         log.info("📄 Doc {} queda SIN CLASIFICAR: {}", doc.getId(), reason);
     }
 
-    private record ClassifyResponse(String category, double confidence) {}
-    private record ResolvedCategory(Category category, boolean fallbackUsed) {}
+    private record ResolvedCategory(CategoryIndex.CategoryRef category, boolean fallbackUsed) {}
 }
\ No newline at end of file
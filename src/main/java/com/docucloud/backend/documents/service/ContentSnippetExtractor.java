@@ -0,0 +1,225 @@
+package com.docucloud.backend.documents.service;
+
+import com.docucloud.backend.config.AsyncConfig;
+import com.docucloud.backend.documents.repository.DocumentRepository;
+import com.docucloud.backend.documents.repository.StoredObjectRow;
+import com.docucloud.backend.storage.s3.dto.S3ObjectStream;
+import com.docucloud.backend.storage.s3.service.S3ObjectService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Texto de los primeros KB de un documento para enviarlo al classifier junto
+ * con el nombre (classifier.content.enabled).
+ *
+ * Solo se pide a S3 un rango "bytes=0-(N-1)": nunca se descarga ni se
+ * bufferiza el archivo completo, así que la memoria por documento está
+ * acotada a {@code max-kb}.
+ *
+ * Las lecturas de un lote van en paralelo en el pool de contenido
+ * (AsyncConfig.CONTENT_EXECUTOR). Cada objeto tiene {@code timeout-ms} desde
+ * que empieza su lectura; si se pasa se corta la conexión y ese documento se
+ * clasifica solo por nombre.
+ *
+ * - Texto plano / CSV / JSON / XML: se decodifica tal cual.
+ * - PDF: si el archivo cabe en el rango se lee la primera página; si está
+ *   truncado, PDFBox intenta reconstruirlo (el xref suele estar al final) y si
+ *   no puede se clasifica solo por nombre.
+ * - DOCX / XLSX / PPTX: ZipInputStream lee las entradas en orden desde el
+ *   inicio, sin el directorio central; se toma el XML de contenido hasta
+ *   donde llegue el rango.
+ * - Resto (imágenes, binarios): sin texto.
+ */
+@Slf4j
+@Component
+public class ContentSnippetExtractor {
+
+    private static final Pattern XML_TAGS = Pattern.compile("<[^>]*>");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern OOXML_CONTENT = Pattern.compile(
+            "word/document\\.xml|xl/sharedStrings\\.xml|ppt/slides/slide\\d+\\.xml");
+
+    private static final Set<String> TEXT_TYPES = Set.of(
+            "application/json", "application/xml", "application/csv", "application/x-yaml");
+    private static final Set<String> OOXML_TYPES = Set.of(
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+            "application/vnd.openxmlformats-officedocument.presentationml.presentation");
+
+    private final DocumentRepository documentRepository;
+    private final S3ObjectService objectService;
+    private final TaskExecutor executor;
+    private final boolean enabled;
+    private final int maxBytes;
+    private final int maxChars;
+    private final long timeoutMs;
+
+    public ContentSnippetExtractor(
+            DocumentRepository documentRepository,
+            S3ObjectService objectService,
+            @Qualifier(AsyncConfig.CONTENT_EXECUTOR) TaskExecutor executor,
+            @Value("${classifier.content.enabled:false}") boolean enabled,
+            @Value("${classifier.content.max-kb:64}") int maxKb,
+            @Value("${classifier.content.max-chars:2000}") int maxChars,
+            @Value("${classifier.content.timeout-ms:2000}") long timeoutMs) {
+        this.documentRepository = documentRepository;
+        this.objectService = objectService;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.maxBytes = Math.max(1, maxKb) * 1024;
+        this.maxChars = Math.max(1, maxChars);
+        this.timeoutMs = Math.max(1, timeoutMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Texto por documento (solo los que tienen); 1 query para todo el lote. */
+    public Map<Long, String> extract(Collection<Long> documentIds) {
+        Map<Long, String> out = new HashMap<>();
+        if (!enabled || documentIds.isEmpty()) return out;
+
+        Map<Long, CompletableFuture<String>> pending = new LinkedHashMap<>();
+        for (StoredObjectRow row : documentRepository.findStoredObjects(documentIds)) {
+            pending.put(row.documentId(), fetch(row));
+        }
+        pending.forEach((documentId, future) -> {
+            try {
+                String text = future.join();
+                if (text != null && !text.isBlank()) out.put(documentId, text);
+            } catch (CompletionException e) {
+                // Sin texto se clasifica por nombre, como antes
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.debug("Sin texto para doc={}: {}", documentId, cause.toString());
+            }
+        });
+        return out;
+    }
+
+    private CompletableFuture<String> fetch(StoredObjectRow row) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                // El plazo corre desde que empieza la lectura, no desde que se encola
+                result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+                try {
+                    result.complete(snippet(row, result));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private String snippet(StoredObjectRow row, CompletableFuture<?> deadline) throws IOException {
+        String mime = row.mimeType() == null ? "" : row.mimeType().toLowerCase(Locale.ROOT);
+        boolean text = mime.startsWith("text/") || TEXT_TYPES.contains(mime);
+        boolean pdf = mime.equals("application/pdf");
+        boolean ooxml = OOXML_TYPES.contains(mime);
+        if (!text && !pdf && !ooxml) return null;
+
+        byte[] head = readHead(row.s3Bucket(), row.s3Key(), deadline);
+        if (head == null || head.length == 0) return null;
+
+        String raw;
+        if (text) raw = new String(head, StandardCharsets.UTF_8);
+        else if (pdf) raw = pdfFirstPage(head);
+        else raw = ooxmlText(head);
+        return normalize(raw);
+    }
+
+    private byte[] readHead(String bucket, String key, CompletableFuture<?> deadline) throws IOException {
+        S3ObjectStream object = objectService.open(bucket, key, "bytes=0-" + (maxBytes - 1), null);
+        if (object.body() == null) return null;
+        // Vencido el plazo se aborta la conexión: la lectura bloqueada falla y el hilo queda libre
+        if (object.body() instanceof ResponseInputStream<?> r) {
+            deadline.whenComplete((v, e) -> {
+                if (e instanceof TimeoutException) r.abort();
+            });
+        }
+        try (InputStream in = object.body()) {
+            byte[] head = in.readNBytes(maxBytes);
+            // Si S3 ignoró el rango (200) no se drena el resto: se corta la conexión
+            if (object.status() == 200 && in.read() != -1 && in instanceof ResponseInputStream<?> r) {
+                r.abort();
+            }
+            return head;
+        }
+    }
+
+    private String pdfFirstPage(byte[] head) {
+        try (PDDocument pdf = Loader.loadPDF(head)) {
+            if (pdf.getNumberOfPages() == 0) return null;
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(1);
+            stripper.setEndPage(1);
+            return stripper.getText(pdf);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String ooxmlText(byte[] head) {
+        StringBuilder out = new StringBuilder();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(head))) {
+            ZipEntry entry;
+            while (out.length() < maxChars && (entry = zip.getNextEntry()) != null) {
+                if (!OOXML_CONTENT.matcher(entry.getName()).matches()) continue;
+                byte[] xml = readTruncated(zip, maxChars * 8);
+                out.append(XML_TAGS.matcher(new String(xml, StandardCharsets.UTF_8)).replaceAll(" ")).append(' ');
+            }
+        } catch (IOException e) {
+            // Rango truncado a mitad de entrada: vale lo leído hasta aquí
+        }
+        return out.toString();
+    }
+
+    private static byte[] readTruncated(InputStream in, int limit) {
+        byte[] buf = new byte[limit];
+        int n = 0;
+        try {
+            int r;
+            while (n < limit && (r = in.read(buf, n, limit - n)) > 0) n += r;
+        } catch (IOException e) {
+            // EOF inesperado por el rango: se devuelve lo leído
+        }
+        return Arrays.copyOf(buf, n);
+    }
+
+    private String normalize(String raw) {
+        if (raw == null) return null;
+        String text = WHITESPACE.matcher(raw).replaceAll(" ").trim();
+        return text.length() > maxChars ? text.substring(0, maxChars) : text;
+    }
+}
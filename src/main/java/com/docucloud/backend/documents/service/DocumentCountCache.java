@@ -0,0 +1,62 @@
+package com.docucloud.backend.documents.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Totales de los listados por usuario ("all", "status:FAILED", "folder:3"...).
+ * Evita un SELECT COUNT en cada página: se cuenta una vez y se invalida
+ * todo el mapa del usuario cuando cambia algo que afecta a sus listados
+ * (upload, borrado, mover de carpeta, clasificación).
+ */
+@Component
+public class DocumentCountCache {
+
+    private final Cache<Long, ConcurrentMap<String, Long>> counts;
+
+    public DocumentCountCache(
+            @Value("${app.documents.count-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${app.documents.count-cache.max-users:10000}") long maxUsers) {
+        // El TTL es solo una red de seguridad para escrituras que no pasen por evict
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public long get(Long userId, String key, LongSupplier counter) {
+        return counts.get(userId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> counter.getAsLong());
+    }
+
+    public void evict(Long userId) {
+        if (userId != null) counts.invalidate(userId);
+    }
+
+    /**
+     * Invalida tras el commit: si se invalidara antes, una lectura concurrente
+     * podría volver a cachear el conteo viejo mientras la transacción sigue abierta.
+     */
+    public void evictAfterCommit(Long userId) {
+        if (userId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userId);
+            }
+        });
+    }
+}
@@ -2,8 +2,10 @@ package com.docucloud.backend.documents.service;
 
 import com.docucloud.backend.audit.service.AuditService;
 import com.docucloud.backend.documents.dto.request.CompleteUploadRequest;
+import com.docucloud.backend.documents.dto.request.DocumentCursor;
 import com.docucloud.backend.documents.dto.request.InitUploadRequest;
 import com.docucloud.backend.documents.dto.request.UpdateMetadataRequest;
+import com.docucloud.backend.documents.dto.response.CursorPageResponse;
 import com.docucloud.backend.documents.dto.response.DocumentResponse;
 import com.docucloud.backend.documents.dto.response.DownloadUrlResponse;
 import com.docucloud.backend.documents.dto.response.InitUploadResponse;
@@ -11,14 +13,20 @@ import com.docucloud.backend.documents.model.Document;
 import com.docucloud.backend.documents.model.DocumentStatus;
 import com.docucloud.backend.documents.model.DocumentTag;
 import com.docucloud.backend.documents.model.DocumentTagId;
+import com.docucloud.backend.documents.repository.DocumentReadRepository;
 import com.docucloud.backend.documents.repository.DocumentRepository;
+import com.docucloud.backend.documents.repository.DocumentRow;
+import com.docucloud.backend.documents.repository.DocumentSearchQuery;
 import com.docucloud.backend.documents.repository.DocumentShareRepository;
 import com.docucloud.backend.documents.repository.DocumentSpecification;
 import com.docucloud.backend.documents.repository.DocumentTagRepository;
+import com.docucloud.backend.documents.repository.DocumentTagRow;
 import com.docucloud.backend.documents.validation.AllowedFileTypes;
 import com.docucloud.backend.favorites.service.FavoriteService;
 import com.docucloud.backend.storage.s3.dto.PresignedUrlResponse;
+import com.docucloud.backend.storage.s3.dto.S3ObjectStream;
 import com.docucloud.backend.storage.s3.service.S3KeyService;
+import com.docucloud.backend.storage.s3.service.S3ObjectService;
 import com.docucloud.backend.storage.s3.service.S3PresignService;
 import com.docucloud.backend.tags.dto.response.TagResponse;
 import com.docucloud.backend.tags.model.Tag;
@@ -28,8 +36,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,12 +50,13 @@ import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.InputStream;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -50,15 +64,26 @@ import java.util.stream.Collectors;
 @Transactional
 public class DocumentService {
 
+    private static final Instant SEARCH_MIN_DATE = Instant.EPOCH;
+    private static final Instant SEARCH_MAX_DATE = Instant.parse("9999-12-31T23:59:59Z");
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_TAGS_BATCH_IDS = 200;
+
     private final DocumentRepository repo;
+    private final DocumentReadRepository readRepo;
     private final DocumentTagRepository documentTagRepository;
     private final DocumentShareRepository shareRepository;
     private final TagRepository tagRepository;
-    private final ClassifierService classifierService;
+    private final ClassificationBatcher classificationBatcher;
+    private final ClassificationJobService classificationJobService;
+    private final ThumbnailService thumbnailService;
     private final S3KeyService keyService;
     private final S3PresignService presignService;
+    private final S3ObjectService objectService;
     private final UserRepository userRepository;
     private final FavoriteService favoriteService;
+    private final DocumentCountCache countCache;
+    private final ClassificationStatsService statsService;
     private final AuditService auditService;
     private final ObjectMapper objectMapper;
     private final String bucket;
@@ -68,14 +93,20 @@ public class DocumentService {
 
     public DocumentService(
             DocumentRepository repo,
+            DocumentReadRepository readRepo,
             DocumentTagRepository documentTagRepository,
             DocumentShareRepository shareRepository,
             TagRepository tagRepository,
-            ClassifierService classifierService,
+            ClassificationBatcher classificationBatcher,
+            ClassificationJobService classificationJobService,
+            ThumbnailService thumbnailService,
             S3KeyService keyService,
             S3PresignService presignService,
+            S3ObjectService objectService,
             UserRepository userRepository,
             FavoriteService favoriteService,
+            DocumentCountCache countCache,
+            ClassificationStatsService statsService,
             AuditService auditService,
             ObjectMapper objectMapper,
             @Value("${docucloud.aws.s3.bucket}") String bucket,
@@ -84,14 +115,20 @@ public class DocumentService {
             @Value("${app.document.max-size-mb:50}") long maxSizeMb
     ) {
         this.repo = repo;
+        this.readRepo = readRepo;
         this.documentTagRepository = documentTagRepository;
         this.shareRepository = shareRepository;
         this.tagRepository = tagRepository;
-        this.classifierService = classifierService;
+        this.classificationBatcher = classificationBatcher;
+        this.classificationJobService = classificationJobService;
+        this.thumbnailService = thumbnailService;
         this.keyService = keyService;
         this.presignService = presignService;
+        this.objectService = objectService;
         this.userRepository = userRepository;
         this.favoriteService = favoriteService;
+        this.countCache = countCache;
+        this.statsService = statsService;
         this.auditService = auditService;
         this.objectMapper = objectMapper;
         this.bucket = bucket;
@@ -125,6 +162,8 @@ public class DocumentService {
         doc.setS3Key(s3Key);
         doc.setStatus(DocumentStatus.PENDING_UPLOAD);
         doc = repo.save(doc);
+        countCache.evictAfterCommit(userId);
+        statsService.documentCreated(userId);
 
         PresignedUrlResponse url = presignService.presignPut(
                 bucket, s3Key, req.mimeType(), putDuration);
@@ -146,10 +185,16 @@ public class DocumentService {
 
         boolean success = true;
         try {
+            DocumentStatus previousStatus = doc.getStatus();
             doc.setSizeBytes(req.sizeBytes());
             doc.setFileHash(req.fileHash());
             doc.setStatus(DocumentStatus.AVAILABLE);
             repo.save(doc);
+            countCache.evictAfterCommit(userId);
+            statsService.statusChanged(userId, previousStatus, DocumentStatus.AVAILABLE);
+            // El job se confirma con el documento: si el envío post-commit se
+            // pierde (reinicio, classifier caído) lo retoma el drenado
+            classificationJobService.enqueue(doc);
 
             final Long capturedDocId = docId;
             final String capturedName = doc.getFileName();
@@ -158,8 +203,9 @@ public class DocumentService {
             TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
                 @Override
                 public void afterCommit() {
-                    log.info("🧠 Triggering async classification post-commit - docId={}", capturedDocId);
-                    classifierService.classifyAndAssignAsync(capturedDocId, capturedName, capturedUserId);
+                    log.info("🧠 Queueing classification post-commit - docId={}", capturedDocId);
+                    classificationBatcher.submit(capturedDocId, capturedName, capturedUserId);
+                    thumbnailService.generateAsync(capturedDocId);
                 }
             });
         } catch (Exception ex) {
@@ -174,14 +220,27 @@ public class DocumentService {
 
     // ─── THUMBNAIL HELPER ─────────────────────────────────────────────────────
 
+    // Prefiere la miniatura generada; el original solo como fallback para imágenes
     private String resolveThumbnailUrl(Document doc) {
-        if (doc.getMimeType() != null && doc.getMimeType().startsWith("image/")) {
-            return presignService.presignGet(doc.getS3Bucket(), doc.getS3Key(), getDuration).url();
+        return resolveThumbnailUrl(
+                doc.getS3Bucket(), doc.getS3Key(), doc.getThumbnailS3Key(), doc.getMimeType());
+    }
+
+    private String resolveThumbnailUrl(String s3Bucket, String s3Key, String thumbKey, String mimeType) {
+        if (thumbKey != null) {
+            return presignService.presignGet(s3Bucket, thumbKey, getDuration).url();
+        }
+        if (mimeType != null && mimeType.startsWith("image/")) {
+            return presignService.presignGet(s3Bucket, s3Key, getDuration).url();
         }
         return null;
     }
 
     // ─── LISTADO ──────────────────────────────────────────────────────────────
+    // Los listados van por DocumentReadRepository: proyección DocumentRow con
+    // categoría y favorito en el mismo SELECT, tags en 1 query batch.
+    // withTotal=false devuelve un Slice (sin COUNT); con total, el conteo sale
+    // de DocumentCountCache en lugar de recontarse en cada página.
 
     @Transactional(readOnly = true)
     public Page<Document> list(Long userId, Pageable pageable) {
@@ -189,28 +248,29 @@ public class DocumentService {
     }
 
     @Transactional(readOnly = true)
-    public Page<DocumentResponse> listWithFavorites(Long userId, Pageable pageable) {
-        Page<Document> page = repo.findAllByOwnerUserIdAndDeletedAtIsNull(userId, pageable);
-        Set<Long> favIds = getFavoriteIds(userId, page);
-        return page.map(doc -> DocumentResponse.from(
-                doc, favIds.contains(doc.getId()), resolveThumbnailUrl(doc)));
+    public Slice<DocumentResponse> listWithFavorites(Long userId, Pageable pageable, boolean withTotal) {
+        return toResponseSlice(userId, readRepo.findAllRows(userId, pageable), withTotal,
+                "all", () -> readRepo.countAll(userId));
     }
 
     @Transactional(readOnly = true)
-    public Page<DocumentResponse> listWithFavoritesByCategory(
-            Long userId, Long categoryId, Pageable pageable) {
-        Page<Document> page = repo.findByOwnerUserIdAndCategoryId(userId, categoryId, pageable);
-        Set<Long> favIds = getFavoriteIds(userId, page);
-        return page.map(doc -> DocumentResponse.from(
-                doc, favIds.contains(doc.getId()), resolveThumbnailUrl(doc)));
+    public Slice<DocumentResponse> listWithFavoritesByCategory(
+            Long userId, Long categoryId, Pageable pageable, boolean withTotal) {
+        return toResponseSlice(userId, readRepo.findRowsByCategory(userId, categoryId, pageable), withTotal,
+                "category:" + categoryId, () -> readRepo.countByCategory(userId, categoryId));
     }
 
     @Transactional(readOnly = true)
-    public Page<DocumentResponse> listUnclassified(Long userId, Pageable pageable) {
-        Page<Document> page = repo.findUnclassifiedByOwnerUserId(userId, pageable);
-        Set<Long> favIds = getFavoriteIds(userId, page);
-        return page.map(doc -> DocumentResponse.from(
-                doc, favIds.contains(doc.getId()), resolveThumbnailUrl(doc)));
+    public Slice<DocumentResponse> listUnclassified(Long userId, Pageable pageable, boolean withTotal) {
+        return toResponseSlice(userId, readRepo.findUnclassifiedRows(userId, pageable), withTotal,
+                "unclassified", () -> readRepo.countUnclassified(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<DocumentResponse> listByFolder(
+            Long userId, Long folderId, Pageable pageable, boolean withTotal) {
+        return toResponseSlice(userId, readRepo.findRowsByFolder(userId, folderId, pageable), withTotal,
+                "folder:" + folderId, () -> readRepo.countByFolder(userId, folderId));
     }
 
     @Transactional(readOnly = true)
@@ -220,12 +280,9 @@ public class DocumentService {
     }
 
     @Transactional(readOnly = true)
-    public Page<DocumentResponse> getRecentDocumentsWithFavorites(Long userId, Pageable pageable) {
-        Page<Document> page = repo.findByOwnerUserIdAndStatusAndDeletedAtIsNullOrderByCreatedAtDesc(
-                userId, DocumentStatus.AVAILABLE, pageable);
-        Set<Long> favIds = getFavoriteIds(userId, page);
-        return page.map(doc -> DocumentResponse.from(
-                doc, favIds.contains(doc.getId()), resolveThumbnailUrl(doc)));
+    public Slice<DocumentResponse> getRecentDocumentsWithFavorites(
+            Long userId, Pageable pageable, boolean withTotal) {
+        return listByStatus(userId, DocumentStatus.AVAILABLE, pageable, withTotal);
     }
 
     @Transactional(readOnly = true)
@@ -234,12 +291,66 @@ public class DocumentService {
     }
 
     @Transactional(readOnly = true)
-    public Page<DocumentResponse> listFailedWithFavorites(Long userId, Pageable pageable) {
-        Page<Document> page = repo.findByOwnerUserIdAndStatusAndDeletedAtIsNull(
-                userId, DocumentStatus.FAILED, pageable);
-        Set<Long> favIds = getFavoriteIds(userId, page);
-        return page.map(doc -> DocumentResponse.from(
-                doc, favIds.contains(doc.getId()), resolveThumbnailUrl(doc)));
+    public Slice<DocumentResponse> listFailedWithFavorites(
+            Long userId, Pageable pageable, boolean withTotal) {
+        return listByStatus(userId, DocumentStatus.FAILED, pageable, withTotal);
+    }
+
+    private Slice<DocumentResponse> listByStatus(
+            Long userId, DocumentStatus status, Pageable pageable, boolean withTotal) {
+        return toResponseSlice(userId, readRepo.findRowsByStatus(userId, status, pageable), withTotal,
+                "status:" + status, () -> readRepo.countByStatus(userId, status));
+    }
+
+    // ─── LISTADO POR CURSOR (keyset) ──────────────────────────────────────────
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DocumentResponse> listAfter(
+            Long userId, Long categoryId, boolean unclassified, String after, int size) {
+        DocumentCursor c = DocumentCursor.decode(after);
+        int limit = clampCursorSize(size);
+
+        List<DocumentRow> rows;
+        if (unclassified) {
+            rows = readRepo.findUnclassifiedRowsAfter(userId, c.at(), c.id(), Limit.of(limit + 1));
+        } else if (categoryId != null) {
+            rows = readRepo.findRowsByCategoryAfter(
+                    userId, categoryId, c.at(), c.id(), Limit.of(limit + 1));
+        } else {
+            rows = readRepo.findAllRowsAfter(userId, c.at(), c.id(), Limit.of(limit + 1));
+        }
+        return toCursorPage(userId, rows, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DocumentResponse> listByStatusAfter(
+            Long userId, DocumentStatus status, String after, int size) {
+        DocumentCursor c = DocumentCursor.decode(after);
+        int limit = clampCursorSize(size);
+        return toCursorPage(userId,
+                readRepo.findRowsByStatusAfter(userId, status, c.at(), c.id(), Limit.of(limit + 1)),
+                limit);
+    }
+
+    // Fallidos por updatedAt (cuándo fallaron), igual que listFailedWithFavorites
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DocumentResponse> listFailedAfter(Long userId, String after, int size) {
+        DocumentCursor c = DocumentCursor.decode(after);
+        int limit = clampCursorSize(size);
+        return toCursorPage(userId,
+                readRepo.findRowsByStatusUpdatedAfter(
+                        userId, DocumentStatus.FAILED, c.at(), c.id(), Limit.of(limit + 1)),
+                limit, DocumentRow::updatedAt);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DocumentResponse> listByFolderAfter(
+            Long userId, Long folderId, String after, int size) {
+        DocumentCursor c = DocumentCursor.decode(after);
+        int limit = clampCursorSize(size);
+        return toCursorPage(userId,
+                readRepo.findRowsByFolderAfter(userId, folderId, c.at(), c.id(), Limit.of(limit + 1)),
+                limit);
     }
 
     @Transactional(readOnly = true)
@@ -295,10 +406,33 @@ public class DocumentService {
             }
         }
 
-        return repo.findAll(
-                DocumentSpecification.search(
-                        userId, nameQuery, mimeQuery, status, fromInstant, toInstant),
-                pageable);
+        if (nameQuery == null) {
+            return repo.findAll(
+                    DocumentSpecification.search(
+                            userId, null, mimeQuery, status, fromInstant, toInstant),
+                    pageable);
+        }
+
+        // Con texto: índice full-text + trigramas, ordenado por relevancia.
+        // Primero la página de IDs, luego las entidades con el grafo en 1 SELECT.
+        Page<Long> ids = repo.searchRankedIds(
+                userId,
+                DocumentSearchQuery.toPrefixTsQuery(nameQuery),
+                DocumentSearchQuery.toLikePattern(nameQuery),
+                nameQuery.toLowerCase(),
+                mimeQuery != null ? mimeQuery : "",
+                status != null ? status.name() : "",
+                fromInstant != null ? fromInstant : SEARCH_MIN_DATE,
+                toInstant != null ? toInstant : SEARCH_MAX_DATE,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+
+        Map<Long, Document> byId = repo.findWithClassificationByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Document::getId, d -> d));
+        List<Document> ranked = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(ranked, ids.getPageable(), ids.getTotalElements());
     }
 
     @Transactional(readOnly = true)
@@ -352,14 +486,15 @@ public class DocumentService {
                         HttpStatus.NOT_FOUND, "Documento no encontrado"));
     }
 
-    public byte[] downloadFileBytes(Document document) {
-        PresignedUrlResponse presigned = presignService.presignGet(
-                bucket, document.getS3Key(), Duration.ofMinutes(10));
-        try (InputStream is = new java.net.URI(presigned.url()).toURL().openStream()) {
-            return is.readAllBytes();
+    // Streaming directo desde S3 (sin cargar el archivo en memoria);
+    // Range / If-None-Match se resuelven en S3
+    public S3ObjectStream openDocumentStream(Document document, String range, String ifNoneMatch) {
+        try {
+            return objectService.open(document.getS3Bucket(), document.getS3Key(), range, ifNoneMatch);
         } catch (Exception e) {
+            log.warn("⚠️ Error abriendo stream de S3 doc={}: {}", document.getId(), e.getMessage());
             throw new ResponseStatusException(
-                    HttpStatus.INTERNAL_SERVER_ERROR, "Error descargando archivo de S3");
+                    HttpStatus.NOT_FOUND, "Archivo no disponible en S3");
         }
     }
 
@@ -372,9 +507,11 @@ public class DocumentService {
 
         boolean success = true;
         try {
+            statsService.documentDeleted(userId, doc.getClassification() != null, doc.getStatus());
             doc.setDeletedAt(Instant.now());
             doc.setStatus(DocumentStatus.DELETED);
             repo.save(doc);
+            countCache.evictAfterCommit(userId);
             log.info("🗑️ Document deleted - user={} doc={}", userId, docId);
         } catch (Exception ex) {
             success = false;
@@ -431,29 +568,29 @@ public class DocumentService {
                 .collect(Collectors.toList());
     }
 
-    // ✅ NUEVO — batch de tags: 1 query para N documentos
+    // Batch de tags: ownership + tags en 1 query indexada sobre los IDs pedidos
     @Transactional(readOnly = true)
     public Map<Long, List<TagResponse>> getTagsBatch(Long userId, List<Long> documentIds) {
         if (documentIds == null || documentIds.isEmpty()) return Collections.emptyMap();
 
-        // Filtra solo IDs que pertenecen al usuario (seguridad)
-        List<Long> ownedIds = repo
-                .findAllByOwnerUserIdAndDeletedAtIsNull(userId, org.springframework.data.domain.Pageable.unpaged())
-                .getContent()
-                .stream()
-                .map(Document::getId)
-                .filter(documentIds::contains)
-                .toList();
+        Set<Long> ids = documentIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
-        if (ownedIds.isEmpty()) return Collections.emptyMap();
+        if (ids.size() > MAX_TAGS_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Máximo " + MAX_TAGS_BATCH_IDS + " documentos por consulta de tags");
+        }
+        if (ids.isEmpty()) return Collections.emptyMap();
 
-        // 1 sola query para todos los tags
-        return documentTagRepository.findByDocumentIdIn(ownedIds)
+        // Los IDs ajenos o eliminados simplemente no aparecen en el resultado
+        return documentTagRepository.findTagRowsByOwnedDocumentIds(userId, ids)
                 .stream()
                 .collect(Collectors.groupingBy(
-                        dt -> dt.getDocument().getId(),
+                        DocumentTagRow::documentId,
+                        LinkedHashMap::new,
                         Collectors.mapping(
-                                dt -> new TagResponse(dt.getTag().getId(), dt.getTag().getName()),
+                                row -> new TagResponse(row.tagId(), row.tagName()),
                                 Collectors.toList()
                         )
                 ));
@@ -475,6 +612,54 @@ public class DocumentService {
         return favoriteService.getFavoriteIdsByDocumentIds(userId, docIds);
     }
 
+    // Se piden limit + 1 filas: la extra solo indica si hay página siguiente
+    private CursorPageResponse<DocumentResponse> toCursorPage(
+            Long userId, List<DocumentRow> rows, int limit) {
+        return toCursorPage(userId, rows, limit, DocumentRow::createdAt);
+    }
+
+    // sortKey: el instante por el que ordena la consulta; va al cursor junto con el id
+    private CursorPageResponse<DocumentResponse> toCursorPage(
+            Long userId, List<DocumentRow> rows, int limit, Function<DocumentRow, Instant> sortKey) {
+        boolean hasNext = rows.size() > limit;
+        List<DocumentRow> content = hasNext ? rows.subList(0, limit) : rows;
+
+        DocumentRow last = content.isEmpty() ? null : content.get(content.size() - 1);
+        String next = hasNext ? new DocumentCursor(sortKey.apply(last), last.id()).encode() : null;
+        return new CursorPageResponse<>(toResponses(userId, content), limit, hasNext, next);
+    }
+
+    private Slice<DocumentResponse> toResponseSlice(
+            Long userId, Slice<DocumentRow> slice, boolean withTotal, String countKey, LongSupplier counter) {
+        List<DocumentResponse> content = toResponses(userId, slice.getContent());
+        if (!withTotal) {
+            return new SliceImpl<>(content, slice.getPageable(), slice.hasNext());
+        }
+        return new PageImpl<>(content, slice.getPageable(), countCache.get(userId, countKey, counter));
+    }
+
+    private List<DocumentResponse> toResponses(Long userId, List<DocumentRow> rows) {
+        if (rows.isEmpty()) return List.of();
+
+        Map<Long, List<String>> tagNames = documentTagRepository
+                .findTagRowsByOwnedDocumentIds(userId, rows.stream().map(DocumentRow::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(
+                        DocumentTagRow::documentId,
+                        Collectors.mapping(DocumentTagRow::tagName, Collectors.toList())));
+
+        return rows.stream()
+                .map(r -> DocumentResponse.from(
+                        r,
+                        tagNames.getOrDefault(r.id(), List.of()),
+                        resolveThumbnailUrl(r.s3Bucket(), r.s3Key(), r.thumbnailS3Key(), r.mimeType())))
+                .toList();
+    }
+
+    public static int clampCursorSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
     private Document findDocumentForUser(Long userId, Long docId) {
         Optional<Document> owned = repo.findByIdAndOwnerUserIdAndDeletedAtIsNull(docId, userId);
         if (owned.isPresent()) return owned.get();
@@ -4,6 +4,7 @@ import com.docucloud.backend.audit.annotation.Audited;
 import com.docucloud.backend.audit.service.AuditService;
 import com.docucloud.backend.documents.dto.request.CreateFolderRequest;
 import com.docucloud.backend.documents.dto.request.RenameFolderRequest;
+import com.docucloud.backend.documents.dto.response.CursorPageResponse;
 import com.docucloud.backend.documents.dto.response.DocumentResponse;
 import com.docucloud.backend.documents.dto.response.FolderResponse;
 import com.docucloud.backend.documents.model.Document;
@@ -14,8 +15,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,6 +33,8 @@ public class FolderService {
 
     private final FolderRepository   folderRepository;
     private final DocumentRepository documentRepository;
+    private final DocumentService    documentService;
+    private final DocumentCountCache countCache;
     private final AuditService       auditService;  // ✅
     private final ObjectMapper       objectMapper;  // ✅
 
@@ -91,14 +94,24 @@ public class FolderService {
     // ─── 3. Documentos de una carpeta ────────────────────────────────────────
 
     @Transactional(readOnly = true)
-    public Page<DocumentResponse> getDocumentsByFolder(Long userId, Long folderId, Pageable pageable) {
+    public Slice<DocumentResponse> getDocumentsByFolder(
+            Long userId, Long folderId, Pageable pageable, boolean withTotal) {
         folderRepository.findByIdAndOwnerUserId(folderId, userId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND, "Carpeta no encontrada"));
 
-        return documentRepository
-                .findByOwnerUserIdAndFolderIdAndDeletedAtIsNull(userId, folderId, pageable)
-                .map(DocumentResponse::from);
+        return documentService.listByFolder(userId, folderId, pageable, withTotal);
+    }
+
+    // Variante keyset: sin COUNT ni OFFSET, para scroll infinito
+    @Transactional(readOnly = true)
+    public CursorPageResponse<DocumentResponse> getDocumentsByFolderAfter(
+            Long userId, Long folderId, String after, int size) {
+        folderRepository.findByIdAndOwnerUserId(folderId, userId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Carpeta no encontrada"));
+
+        return documentService.listByFolderAfter(userId, folderId, after, size);
     }
 
     // ─── 4. Mover documento a carpeta ────────────────────────────────────────
@@ -117,6 +130,7 @@ public class FolderService {
         try {
             doc.setFolderId(folderId);
             documentRepository.save(doc);
+            countCache.evictAfterCommit(userId);
             log.info("📂 Doc moved - user={} doc={} folder={}", userId, docId, folderId);
             return DocumentResponse.from(doc);
         } catch (Exception ex) {
@@ -139,6 +153,7 @@ public class FolderService {
 
         doc.setFolderId(null);
         documentRepository.save(doc);
+        countCache.evictAfterCommit(userId);
 
         log.info("📤 Doc removed from folder - user={} doc={}", userId, docId);
         return DocumentResponse.from(doc);
@@ -193,6 +208,7 @@ public class FolderService {
 
             docs.forEach(doc -> doc.setFolderId(null));
             documentRepository.saveAll(docs);
+            countCache.evictAfterCommit(userId);
 
             folderRepository.delete(folder);
             log.info("🗑️ Folder deleted - user={} folderId={}", userId, folderId);
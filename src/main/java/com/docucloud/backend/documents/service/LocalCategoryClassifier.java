@@ -0,0 +1,304 @@
+package com.docucloud.backend.documents.service;
+
+import com.docucloud.backend.documents.repository.DocumentCategoryRepository;
+import com.docucloud.backend.documents.repository.ManualAssignmentRow;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Clasificador en proceso, por usuario: naive Bayes multinomial sobre
+ * features hasheadas del nombre de archivo (palabras + trigramas de
+ * caracteres). Se entrena con las categorías que el usuario asigna a mano
+ * (CategoryService.assignCategory), que antes no se aprovechaban.
+ *
+ * Si la probabilidad de la mejor categoría supera {@code min-confidence}
+ * se aplica directamente, sin llamar al classifier remoto (microsegundos en
+ * lugar de cientos de ms, y sigue funcionando con el classifier caído).
+ *
+ * El modelo de cada usuario se construye perezosamente desde la BD la
+ * primera vez que se necesita y luego se actualiza incrementalmente tras
+ * cada commit. Vive en una caché acotada: si se expulsa, se reconstruye.
+ */
+@Slf4j
+@Component
+public class LocalCategoryClassifier {
+
+    private static final int MAX_FEATURES = 512;
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int TOKEN_SALT = 0x9E3779B9;
+
+    // Buffer de features reutilizable por hilo: extraer no reserva memoria
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[MAX_FEATURES]);
+
+    private final DocumentCategoryRepository docCatRepo;
+    private final boolean enabled;
+    private final double minConfidence;
+    private final int minSamples;
+    private final int featureMask;
+    private final int bootstrapLimit;
+    private final Cache<Long, UserModel> models;
+    private final Counter hits;
+    private final Counter misses;
+
+    public LocalCategoryClassifier(
+            DocumentCategoryRepository docCatRepo,
+            MeterRegistry meterRegistry,
+            @Value("${classifier.local.enabled:true}") boolean enabled,
+            @Value("${classifier.local.min-confidence:0.9}") double minConfidence,
+            @Value("${classifier.local.min-samples:10}") int minSamples,
+            @Value("${classifier.local.feature-bits:10}") int featureBits,
+            @Value("${classifier.local.bootstrap-limit:5000}") int bootstrapLimit,
+            @Value("${classifier.local.max-users:1000}") long maxUsers,
+            @Value("${classifier.local.idle-minutes:60}") long idleMinutes) {
+        this.docCatRepo = docCatRepo;
+        this.enabled = enabled;
+        this.minConfidence = minConfidence;
+        this.minSamples = Math.max(1, minSamples);
+        this.featureMask = (1 << Math.max(6, Math.min(featureBits, 16))) - 1;
+        this.bootstrapLimit = bootstrapLimit;
+        this.models = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+        this.hits = Counter.builder("classifier.local")
+                .tag("result", "hit")
+                .description("Documentos clasificados por el modelo local")
+                .register(meterRegistry);
+        this.misses = Counter.builder("classifier.local")
+                .tag("result", "miss")
+                .description("Documentos que el modelo local deja al classifier remoto")
+                .register(meterRegistry);
+    }
+
+    /** Predicción local si es suficientemente segura; null para delegar en el classifier remoto. */
+    public Guess predict(Long userId, String fileName) {
+        if (!enabled || userId == null || fileName == null) return null;
+
+        UserModel model = models.get(userId, this::bootstrap);
+        int[] features = SCRATCH.get();
+        int n = extract(fileName, features, featureMask);
+        Guess guess = model.predict(features, n, minSamples, featureMask + 1);
+
+        if (guess != null && guess.confidence() >= minConfidence) {
+            hits.increment();
+            return guess;
+        }
+        misses.increment();
+        return null;
+    }
+
+    // ─── Entrenamiento incremental (tras commit) ──────────────────────────────
+
+    /**
+     * Registra una asignación manual. {@code previousManualCategoryId} es la
+     * categoría manual anterior del documento (se desaprende), o null.
+     */
+    public void learnAfterCommit(Long userId, String fileName, Long categoryId, Long previousManualCategoryId) {
+        if (!enabled || userId == null || fileName == null) return;
+        if (categoryId != null && categoryId.equals(previousManualCategoryId)) return;
+        afterCommit(() -> {
+            UserModel model = models.getIfPresent(userId);
+            // Sin modelo en memoria no hace falta nada: se construirá desde la BD ya confirmada
+            if (model == null) return;
+            int[] features = SCRATCH.get();
+            int n = extract(fileName, features, featureMask);
+            if (previousManualCategoryId != null) model.add(previousManualCategoryId, features, n, -1, featureMask + 1);
+            if (categoryId != null) model.add(categoryId, features, n, +1, featureMask + 1);
+        });
+    }
+
+    public void forgetCategoryAfterCommit(Long userId, Long categoryId) {
+        if (!enabled || userId == null) return;
+        afterCommit(() -> {
+            UserModel model = models.getIfPresent(userId);
+            if (model != null) model.remove(categoryId);
+        });
+    }
+
+    public void evictAfterCommit(Long userId) {
+        if (userId == null) return;
+        afterCommit(() -> models.invalidate(userId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private UserModel bootstrap(Long userId) {
+        UserModel model = new UserModel();
+        int[] features = SCRATCH.get();
+        int trained = 0;
+        for (ManualAssignmentRow row : docCatRepo.findManualAssignments(userId, Limit.of(bootstrapLimit))) {
+            int n = extract(row.fileName(), features, featureMask);
+            model.add(row.categoryId(), features, n, +1, featureMask + 1);
+            trained++;
+        }
+        log.debug("🧮 Modelo local construido - user={} docs={}", userId, trained);
+        return model;
+    }
+
+    // ─── Features ─────────────────────────────────────────────────────────────
+
+    /**
+     * Escribe en {@code out} los índices de features de un nombre de archivo:
+     * cada palabra completa y cada trigrama de caracteres con marcas de
+     * inicio/fin ("^fa", "fac", ..., "ra$"). Los dígitos cuentan como
+     * separador, así "Factura_2024_03" y "factura-2025" comparten features.
+     * Devuelve cuántas features se escribieron.
+     */
+    static int extract(String fileName, int[] out, int mask) {
+        int n = 0;
+        int tokenHash = FNV_OFFSET;
+        int tokenLen = 0;
+        char c2 = 0;
+        char c1 = '^';
+
+        for (int i = 0, len = fileName.length(); i <= len && n < out.length - 2; i++) {
+            char x = i < len ? fold(fileName.charAt(i)) : 0;
+            if (x != 0) {
+                tokenHash = (tokenHash ^ x) * FNV_PRIME;
+                tokenLen++;
+                if (c2 != 0) out[n++] = trigram(c2, c1, x) & mask;
+                c2 = c1;
+                c1 = x;
+            } else if (tokenLen > 0) {
+                if (c2 != 0) out[n++] = trigram(c2, c1, '$') & mask;
+                out[n++] = mix(tokenHash ^ TOKEN_SALT) & mask;
+                tokenHash = FNV_OFFSET;
+                tokenLen = 0;
+                c2 = 0;
+                c1 = '^';
+            }
+        }
+        return n;
+    }
+
+    // Minúsculas y sin tildes; 0 para todo lo que no sea letra
+    private static char fold(char c) {
+        if (c >= 'a' && c <= 'z') return c;
+        if (c >= 'A' && c <= 'Z') return (char) (c + ('a' - 'A'));
+        return switch (Character.toLowerCase(c)) {
+            case 'á', 'à', 'ä', 'â' -> 'a';
+            case 'é', 'è', 'ë', 'ê' -> 'e';
+            case 'í', 'ì', 'ï', 'î' -> 'i';
+            case 'ó', 'ò', 'ö', 'ô' -> 'o';
+            case 'ú', 'ù', 'ü', 'û' -> 'u';
+            case 'ñ' -> 'n';
+            case 'ç' -> 'c';
+            default -> Character.isLetter(c) ? Character.toLowerCase(c) : 0;
+        };
+    }
+
+    private static int trigram(char a, char b, char c) {
+        return mix((a * 31 + b) * 31 + c);
+    }
+
+    // Finalizador de murmur3: reparte bien los bits bajos que usa la máscara
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    // ─── Modelo por usuario ───────────────────────────────────────────────────
+
+    private static final class UserModel {
+
+        private final Map<Long, CategoryStats> categories = new HashMap<>();
+        private int totalDocs;
+
+        synchronized void add(Long categoryId, int[] features, int n, int delta, int buckets) {
+            CategoryStats stats = categories.get(categoryId);
+            if (stats == null) {
+                if (delta < 0) return;
+                stats = new CategoryStats(buckets);
+                categories.put(categoryId, stats);
+            }
+            for (int i = 0; i < n; i++) {
+                int updated = Math.max(0, stats.counts[features[i]] + delta);
+                stats.totalFeatures += updated - stats.counts[features[i]];
+                stats.counts[features[i]] = updated;
+            }
+            stats.docs += delta;
+            totalDocs += delta;
+            if (stats.docs <= 0) {
+                totalDocs -= stats.docs;
+                categories.remove(categoryId);
+            }
+        }
+
+        synchronized void remove(Long categoryId) {
+            CategoryStats stats = categories.remove(categoryId);
+            if (stats != null) totalDocs -= stats.docs;
+        }
+
+        synchronized Guess predict(int[] features, int n, int minSamples, int buckets) {
+            // Con una sola categoría entrenada la "probabilidad" sería siempre 1
+            if (n == 0 || totalDocs < minSamples || categories.size() < 2) return null;
+
+            double priorNorm = Math.log(totalDocs + categories.size());
+            Long bestId = null;
+            double best = Double.NEGATIVE_INFINITY;
+            double[] scores = new double[categories.size()];
+            int k = 0;
+
+            for (Iterator<Map.Entry<Long, CategoryStats>> it = categories.entrySet().iterator(); it.hasNext(); k++) {
+                Map.Entry<Long, CategoryStats> e = it.next();
+                CategoryStats stats = e.getValue();
+                double denom = Math.log(stats.totalFeatures + (double) buckets);
+                double score = Math.log(stats.docs + 1.0) - priorNorm;
+                for (int i = 0; i < n; i++) {
+                    score += Math.log(stats.counts[features[i]] + 1.0) - denom;
+                }
+                scores[k] = score;
+                if (score > best) {
+                    best = score;
+                    bestId = e.getKey();
+                }
+            }
+
+            // Posterior por log-sum-exp
+            double sum = 0;
+            for (double s : scores) sum += Math.exp(s - best);
+            return new Guess(bestId, 1.0 / sum);
+        }
+    }
+
+    private static final class CategoryStats {
+        final int[] counts;
+        long totalFeatures;
+        int docs;
+
+        CategoryStats(int buckets) {
+            this.counts = new int[buckets];
+        }
+    }
+
+    public record Guess(Long categoryId, double confidence) {}
+}
@@ -0,0 +1,167 @@
+package com.docucloud.backend.documents.service;
+
+import com.docucloud.backend.documents.dto.response.ReclassificationRunResponse;
+import com.docucloud.backend.documents.model.ReclassificationRun;
+import com.docucloud.backend.documents.model.ReclassificationStatus;
+import com.docucloud.backend.documents.repository.ClassificationJobRepository;
+import com.docucloud.backend.documents.repository.DocumentRepository;
+import com.docucloud.backend.documents.repository.ReclassificationRunRepository;
+import com.docucloud.backend.users.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reclasificación masiva del corpus de un usuario (p. ej. tras reentrenar
+ * el classifier).
+ *
+ * No llama al classifier: recorre los documents.id del usuario por keyset en
+ * chunks de {@code chunk-size} y los inserta en classification_jobs. De ahí
+ * los recoge ClassificationJobDrainer y ClassificationBatcher los envía en
+ * lotes, con el mismo backoff y circuit breaker que los uploads.
+ *
+ * Cada chunk es una transacción que también guarda el cursor, así que la
+ * ejecución se retoma tras un reinicio. Mientras el usuario tenga
+ * {@code max-in-flight} jobs pendientes no se encola el siguiente chunk.
+ */
+@Slf4j
+@Service
+public class ReclassificationService {
+
+    private final ReclassificationRunRepository runRepo;
+    private final DocumentRepository documentRepo;
+    private final ClassificationJobRepository jobRepo;
+    private final UserRepository userRepository;
+    private final ClassificationResultCache resultCache;
+    private final int chunkSize;
+    private final long maxInFlight;
+
+    public ReclassificationService(
+            ReclassificationRunRepository runRepo,
+            DocumentRepository documentRepo,
+            ClassificationJobRepository jobRepo,
+            UserRepository userRepository,
+            ClassificationResultCache resultCache,
+            @Value("${classifier.reclassify.chunk-size:500}") int chunkSize,
+            @Value("${classifier.reclassify.max-in-flight:1000}") long maxInFlight) {
+        this.runRepo = runRepo;
+        this.documentRepo = documentRepo;
+        this.jobRepo = jobRepo;
+        this.userRepository = userRepository;
+        this.resultCache = resultCache;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxInFlight = Math.max(chunkSize, maxInFlight);
+    }
+
+    // ─── Admin ────────────────────────────────────────────────────────────────
+
+    @Transactional
+    public ReclassificationRunResponse start(Long adminUserId, Long targetUserId) {
+        if (!userRepository.existsById(targetUserId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuario no encontrado");
+        }
+        if (runRepo.existsByTargetUserIdAndStatus(targetUserId, ReclassificationStatus.RUNNING)) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT, "Ya hay una reclasificación en curso para este usuario");
+        }
+
+        ReclassificationRun run = new ReclassificationRun();
+        run.setTargetUserId(targetUserId);
+        run.setRequestedByUserId(adminUserId);
+        run.setTotalDocuments(documentRepo.countReclassifiable(targetUserId));
+        run = runRepo.save(run);
+
+        // Las predicciones cacheadas son del modelo anterior
+        resultCache.invalidateAll();
+
+        log.info("🔄 Reclasificación iniciada - run={} user={} docs={} admin={}",
+                run.getId(), targetUserId, run.getTotalDocuments(), adminUserId);
+        return toResponse(run);
+    }
+
+    @Transactional
+    public ReclassificationRunResponse cancel(Long runId) {
+        ReclassificationRun run = find(runId);
+        if (run.getStatus() == ReclassificationStatus.RUNNING) {
+            // Lo ya encolado termina; solo se deja de encolar
+            run.setStatus(ReclassificationStatus.CANCELLED);
+            run.setFinishedAt(Instant.now());
+            log.info("⏹️ Reclasificación cancelada - run={}", runId);
+        }
+        return toResponse(run);
+    }
+
+    @Transactional(readOnly = true)
+    public ReclassificationRunResponse get(Long runId) {
+        return toResponse(find(runId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReclassificationRunResponse> listRecent() {
+        return runRepo.findTop20ByOrderByStartedAtDesc().stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    // ─── Avance por chunks (ReclassificationWorker) ───────────────────────────
+
+    /**
+     * Avanza una ejecución activa un chunk. Devuelve false si no había
+     * ninguna disponible (todas terminadas o bloqueadas por otra instancia).
+     */
+    @Transactional
+    public boolean advanceOne() {
+        ReclassificationRun run = runRepo.lockNextRunning().orElse(null);
+        if (run == null) return false;
+
+        long pending = jobRepo.countByOwnerUserId(run.getTargetUserId());
+        if (pending >= maxInFlight) {
+            run.setUpdatedAt(Instant.now());  // al final de la rotación
+            return true;
+        }
+
+        List<Long> ids = documentRepo.findReclassifiableIdsAfter(
+                run.getTargetUserId(), run.getLastDocumentId(), Limit.of(chunkSize));
+
+        if (ids.isEmpty()) {
+            if (pending == 0) {
+                run.setStatus(ReclassificationStatus.COMPLETED);
+                run.setFinishedAt(Instant.now());
+                log.info("✅ Reclasificación completada - run={} user={} docs={}",
+                        run.getId(), run.getTargetUserId(), run.getEnqueuedDocuments());
+            } else {
+                run.setUpdatedAt(Instant.now());
+            }
+            return true;
+        }
+
+        int inserted = jobRepo.enqueueAll(ids);
+        run.setLastDocumentId(ids.get(ids.size() - 1));
+        run.setEnqueuedDocuments(run.getEnqueuedDocuments() + inserted);
+        run.setUpdatedAt(Instant.now());
+
+        log.info("🔄 Reclasificación run={} chunk={} encolados={} cursor={}",
+                run.getId(), ids.size(), inserted, run.getLastDocumentId());
+        return true;
+    }
+
+    private ReclassificationRun find(Long runId) {
+        return runRepo.findById(runId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND, "Reclasificación no encontrada"));
+    }
+
+    private ReclassificationRunResponse toResponse(ReclassificationRun run) {
+        long pending = run.getStatus() == ReclassificationStatus.COMPLETED
+                ? 0
+                : jobRepo.countByOwnerUserId(run.getTargetUserId());
+        return ReclassificationRunResponse.from(run, pending);
+    }
+}
@@ -0,0 +1,39 @@
+package com.docucloud.backend.documents.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tick de las reclasificaciones activas: en cada pasada avanza hasta
+ * {@code runs-per-tick} chunks, rotando entre ejecuciones por updated_at.
+ * Cada chunk se confirma por separado (ReclassificationService.advanceOne).
+ */
+@Slf4j
+@Component
+public class ReclassificationWorker {
+
+    private final ReclassificationService reclassificationService;
+    private final int runsPerTick;
+
+    public ReclassificationWorker(
+            ReclassificationService reclassificationService,
+            @Value("${classifier.reclassify.runs-per-tick:10}") int runsPerTick) {
+        this.reclassificationService = reclassificationService;
+        this.runsPerTick = Math.max(1, runsPerTick);
+    }
+
+    @Scheduled(
+            initialDelayString = "${classifier.reclassify.tick-ms:2000}",
+            fixedDelayString = "${classifier.reclassify.tick-ms:2000}")
+    public void tick() {
+        try {
+            for (int i = 0; i < runsPerTick; i++) {
+                if (!reclassificationService.advanceOne()) return;
+            }
+        } catch (Exception e) {
+            log.error("❌ Error avanzando reclasificaciones", e);
+        }
+    }
+}
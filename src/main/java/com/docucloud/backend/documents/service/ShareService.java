@@ -419,15 +419,19 @@ public class ShareService {
         return share;
     }
 
-    // ─── Helper: URL presignada para miniaturas de imágenes ──────────────────
+    // ─── Helper: URL presignada para miniaturas (generada o imagen original) ─
 
     private String generateThumbnailUrl(Document doc) {
-        if (doc.getMimeType() == null || !doc.getMimeType().startsWith("image/")) {
-            return null;
+        String key = doc.getThumbnailS3Key();
+        if (key == null) {
+            if (doc.getMimeType() == null || !doc.getMimeType().startsWith("image/")) {
+                return null;
+            }
+            key = doc.getS3Key();
         }
         try {
             return presignService
-                    .presignGet(doc.getS3Bucket(), doc.getS3Key(), Duration.ofMinutes(getMinutes))
+                    .presignGet(doc.getS3Bucket(), key, Duration.ofMinutes(getMinutes))
                     .url();
         } catch (Exception ex) {
             log.warn("⚠️ No se pudo generar thumbnailUrl para doc={}: {}",
@@ -0,0 +1,203 @@
+package com.docucloud.backend.documents.service;
+
+import com.docucloud.backend.config.AsyncConfig;
+import com.docucloud.backend.documents.model.Document;
+import com.docucloud.backend.documents.repository.DocumentRepository;
+import com.docucloud.backend.storage.s3.dto.S3ObjectStream;
+import com.docucloud.backend.storage.s3.service.S3KeyService;
+import com.docucloud.backend.storage.s3.service.S3ObjectService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * Genera miniaturas JPEG (imágenes) y previews de primera página (PDF)
+ * después de completeUpload. El original nunca se carga entero en heap:
+ * las imágenes se decodifican con submuestreo y los PDF se leen desde un
+ * archivo temporal.
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+
+    private static final String THUMBNAIL_MIME = "image/jpeg";
+    private static final float JPEG_QUALITY = 0.8f;
+    private static final float PDF_RENDER_DPI = 48f;
+
+    private final DocumentRepository documentRepository;
+    private final S3ObjectService objectService;
+    private final S3KeyService keyService;
+    private final int maxEdgePx;
+    private final long maxSourceBytes;
+
+    public ThumbnailService(
+            DocumentRepository documentRepository,
+            S3ObjectService objectService,
+            S3KeyService keyService,
+            @Value("${app.thumbnails.max-edge-px:320}") int maxEdgePx,
+            @Value("${app.thumbnails.max-source-mb:50}") long maxSourceMb) {
+        this.documentRepository = documentRepository;
+        this.objectService = objectService;
+        this.keyService = keyService;
+        this.maxEdgePx = maxEdgePx;
+        this.maxSourceBytes = maxSourceMb * 1024 * 1024;
+    }
+
+    public static boolean supports(String mimeType) {
+        return mimeType != null
+                && (mimeType.startsWith("image/") || mimeType.equals("application/pdf"));
+    }
+
+    // Sin transacción: descarga, render y PUT a S3 no retienen una conexión de BD
+    @Async(AsyncConfig.THUMBNAIL_EXECUTOR)
+    public void generateAsync(Long documentId) {
+        Document doc = documentRepository.findByIdAndDeletedAtIsNull(documentId).orElse(null);
+        if (doc == null || !supports(doc.getMimeType())) return;
+
+        if (doc.getSizeBytes() != null && doc.getSizeBytes() > maxSourceBytes) {
+            log.info("🖼️ Doc {} demasiado grande para miniatura ({} bytes)", documentId, doc.getSizeBytes());
+            return;
+        }
+
+        try {
+            BufferedImage thumbnail = render(doc);
+            if (thumbnail == null) {
+                log.info("🖼️ Formato sin decodificador para miniatura - doc={} mime={}",
+                        documentId, doc.getMimeType());
+                return;
+            }
+
+            String thumbKey = keyService.buildThumbnailKey(doc.getS3Key());
+            objectService.put(doc.getS3Bucket(), thumbKey, encodeJpeg(thumbnail), THUMBNAIL_MIME);
+
+            if (documentRepository.updateThumbnailKey(documentId, thumbKey) == 0) {
+                // Nadie va a referenciar ya el objeto: se borra para no dejarlo huérfano
+                deleteOrphan(doc.getS3Bucket(), thumbKey);
+                log.info("🖼️ Doc {} borrado durante la generación, miniatura descartada", documentId);
+                return;
+            }
+            log.info("🖼️ Miniatura generada - doc={} key={}", documentId, thumbKey);
+        } catch (Exception e) {
+            // Sin miniatura el listado sigue funcionando (fallback al original)
+            log.warn("⚠️ No se pudo generar miniatura doc={}: {}", documentId, e.getMessage());
+        }
+    }
+
+    private void deleteOrphan(String bucket, String thumbKey) {
+        try {
+            objectService.delete(bucket, thumbKey);
+        } catch (Exception e) {
+            log.warn("⚠️ No se pudo borrar la miniatura huérfana {}: {}", thumbKey, e.getMessage());
+        }
+    }
+
+    // ─── Render ───────────────────────────────────────────────────────────────
+
+    private BufferedImage render(Document doc) throws IOException {
+        S3ObjectStream object = objectService.open(doc.getS3Bucket(), doc.getS3Key(), null, null);
+        try (InputStream in = object.body()) {
+            if ("application/pdf".equals(doc.getMimeType())) {
+                return renderPdfFirstPage(in);
+            }
+            return renderImage(in);
+        }
+    }
+
+    private BufferedImage renderImage(InputStream in) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            if (iis == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) return null;
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                // Submuestreo al decodificar: una foto de 8000px no ocupa 256 MB en heap
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (maxEdgePx * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+
+                return scale(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage renderPdfFirstPage(InputStream in) throws IOException {
+        Path tmp = Files.createTempFile("docucloud-thumb-", ".pdf");
+        try {
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            try (PDDocument pdf = Loader.loadPDF(tmp.toFile())) {
+                if (pdf.getNumberOfPages() == 0) return null;
+                BufferedImage page = new PDFRenderer(pdf).renderImageWithDPI(0, PDF_RENDER_DPI, ImageType.RGB);
+                return scale(page);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source) {
+        double ratio = Math.min(1.0,
+                (double) maxEdgePx / Math.max(source.getWidth(), source.getHeight()));
+        int w = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int h = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        // Fondo blanco: JPEG no tiene canal alfa (PNG transparentes)
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, w, h);
+            g.drawImage(source, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @Configuration
@@ -24,4 +25,19 @@ public class S3Config {
                 .credentialsProvider(StaticCredentialsProvider.create(credentials))
                 .build();
     }
-}
\ No newline at end of file
+
+    // Cliente para leer/escribir objetos desde el backend (streaming, rangos)
+    @Bean
+    public S3Client s3Client(
+            @Value("${docucloud.aws.region}") String region,
+            @Value("${docucloud.aws.accessKey}") String accessKey,
+            @Value("${docucloud.aws.secretKey}") String secretKey) {
+
+        AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKey, secretKey);
+
+        return S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(credentials))
+                .build();
+    }
+}
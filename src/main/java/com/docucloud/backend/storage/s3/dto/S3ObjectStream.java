@@ -0,0 +1,16 @@
+package com.docucloud.backend.storage.s3.dto;
+
+import java.io.InputStream;
+
+/**
+ * Resultado de abrir un objeto de S3 para streaming.
+ * status: 200 (completo), 206 (rango), 304 (ETag coincide) o 416 (rango inválido).
+ * body es null salvo en 200/206 y debe cerrarse al terminar de escribirlo.
+ */
+public record S3ObjectStream(
+        int status,
+        InputStream body,
+        Long contentLength,
+        String contentRange,
+        String eTag
+) {}
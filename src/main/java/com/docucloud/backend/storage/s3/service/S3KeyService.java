@@ -13,6 +13,11 @@ public class S3KeyService {
         return "users/" + ownerUserId + "/" + UUID.randomUUID() + "-" + sanitizeFileName(originalFileName);
     }
 
+    // Derivada del original: misma carpeta del usuario, sufijo fijo
+    public String buildThumbnailKey(String documentKey) {
+        return documentKey + ".thumb.jpg";
+    }
+
     private String sanitizeFileName(String input) {
         if (input == null || input.isBlank()) return "file";
         String normalized = Normalizer.normalize(input, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
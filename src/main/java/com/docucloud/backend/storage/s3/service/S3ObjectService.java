@@ -0,0 +1,72 @@
+package com.docucloud.backend.storage.s3.service;
+
+import com.docucloud.backend.storage.s3.dto.S3ObjectStream;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+@Service
+public class S3ObjectService {
+
+    private final S3Client s3Client;
+
+    public S3ObjectService(S3Client s3Client) {
+        this.s3Client = s3Client;
+    }
+
+    /**
+     * Abre el objeto sin bufferizarlo: Range e If-None-Match se delegan a S3.
+     * S3 solo soporta un rango; si llegan varios se sirve el objeto completo.
+     */
+    public S3ObjectStream open(String bucket, String key, String range, String ifNoneMatch) {
+        GetObjectRequest.Builder get = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(key);
+
+        boolean ranged = range != null && range.startsWith("bytes=") && !range.contains(",");
+        if (ranged) {
+            get.range(range);
+        }
+        if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+            get.ifNoneMatch(ifNoneMatch);
+        }
+
+        try {
+            ResponseInputStream<GetObjectResponse> in = s3Client.getObject(get.build());
+            GetObjectResponse meta = in.response();
+            int status = ranged && meta.contentRange() != null ? 206 : 200;
+            return new S3ObjectStream(status, in, meta.contentLength(), meta.contentRange(), meta.eTag());
+        } catch (S3Exception e) {
+            if (e.statusCode() == 304 || e.statusCode() == 416) {
+                // En 304 S3 devuelve el ETag actual; el controlador lo repite al cliente
+                String eTag = e.awsErrorDetails() != null && e.awsErrorDetails().sdkHttpResponse() != null
+                        ? e.awsErrorDetails().sdkHttpResponse().firstMatchingHeader("ETag").orElse(null)
+                        : null;
+                return new S3ObjectStream(e.statusCode(), null, null, null, eTag);
+            }
+            throw e;
+        }
+    }
+
+    public void put(String bucket, String key, byte[] content, String contentType) {
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .build(),
+                RequestBody.fromBytes(content));
+    }
+
+    public void delete(String bucket, String key) {
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .build());
+    }
+}
@@ -1,6 +1,10 @@
 package com.docucloud.backend.storage.s3.service;
 
 import com.docucloud.backend.storage.s3.dto.PresignedUrlResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
@@ -17,8 +21,24 @@ public class S3PresignService {
 
     private final S3Presigner presigner;
 
-    public S3PresignService(S3Presigner presigner) {
+    // Cache de GETs presignados: evita una firma SigV4 por fila en cada listado
+    // y devuelve la misma URL durante la primera mitad de su validez, así el
+    // navegador puede cachearla y quien la recibe siempre tiene al menos la mitad
+    // de la duración pedida.
+    // Los PUT nunca se cachean (cada upload usa una key nueva).
+    private final Cache<GetKey, PresignedUrlResponse> getCache;
+    private final Duration safetyMargin;
+
+    public S3PresignService(
+            S3Presigner presigner,
+            @Value("${docucloud.aws.s3.presign.cache.safety-margin-seconds:60}") long safetyMarginSeconds,
+            @Value("${docucloud.aws.s3.presign.cache.max-entries:20000}") long maxEntries) {
         this.presigner = presigner;
+        this.safetyMargin = Duration.ofSeconds(safetyMarginSeconds);
+        this.getCache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new ReuseUntilMargin())
+                .build();
     }
 
     public PresignedUrlResponse presignPut(String bucket, String key, String mimeType, Duration duration) {
@@ -39,28 +59,60 @@ public class S3PresignService {
     }
 
     public PresignedUrlResponse presignGet(String bucket, String key, Duration duration) {
-        GetObjectRequest get = GetObjectRequest.builder()
+        return getCache.get(new GetKey(bucket, key, null, duration), k -> signGet(bucket, key, null, duration));
+    }
+
+    public PresignedUrlResponse presignGet(String bucket, String key, String fileName, Duration duration) {
+        String disposition = "attachment; filename=\"" + fileName + "\"";
+        return getCache.get(new GetKey(bucket, key, disposition, duration),
+                k -> signGet(bucket, key, disposition, duration));
+    }
+
+    private PresignedUrlResponse signGet(String bucket, String key, String disposition, Duration duration) {
+        GetObjectRequest.Builder get = GetObjectRequest.builder()
                 .bucket(bucket)
-                .key(key)
-                .build();
+                .key(key);
+        if (disposition != null) {
+            get.responseContentDisposition(disposition);
+        }
+        GetObjectRequest request = get.build();
 
         PresignedGetObjectRequest presigned = presigner.presignGetObject(r -> r
                 .signatureDuration(duration)
-                .getObjectRequest(get));
+                .getObjectRequest(request));
 
         return new PresignedUrlResponse(presigned.url().toString(), Instant.now().plus(duration), "GET");
     }
-    public PresignedUrlResponse presignGet(String bucket, String key, String fileName, Duration duration) {
-        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                .bucket(bucket)
-                .key(key)
-                .responseContentDisposition("attachment; filename=\"" + fileName + "\"")
-                .build();
 
-        PresignedGetObjectRequest presigned = presigner.presignGetObject(r -> r
-                .signatureDuration(duration)
-                .getObjectRequest(getObjectRequest));
+    // La duración forma parte de la clave: quien pide una URL corta no recibe
+    // una firmada para más tiempo
+    private record GetKey(String bucket, String key, String disposition, Duration duration) {}
 
-        return new PresignedUrlResponse(presigned.url().toString(), Instant.now().plus(duration), "GET");
+    /**
+     * La entrada se reutiliza mientras le quede más de la mitad de la duración
+     * firmada (y como mínimo safetyMargin); si la firma es más corta que el
+     * margen no se guarda.
+     */
+    private final class ReuseUntilMargin implements Expiry<GetKey, PresignedUrlResponse> {
+
+        @Override
+        public long expireAfterCreate(GetKey key, PresignedUrlResponse value, long currentTime) {
+            Duration keep = key.duration().dividedBy(2);
+            if (keep.compareTo(safetyMargin) < 0) keep = safetyMargin;
+            Duration ttl = Duration.between(Instant.now(), value.expiresAt().minus(keep));
+            return ttl.isNegative() ? 0 : ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(GetKey key, PresignedUrlResponse value,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(GetKey key, PresignedUrlResponse value,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -19,7 +19,6 @@ import com.docucloud.backend.documents.repository.DocumentRepository;
 import com.docucloud.backend.documents.repository.DocumentShareRepository;
 import com.docucloud.backend.favorites.repository.FavoriteRepository;
 import com.docucloud.backend.search.repository.SearchHistoryRepository;
-import com.docucloud.backend.audit.repository.ActivityHistoryRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
@@ -52,7 +51,6 @@ public class UserService {
     private final ObjectMapper                 objectMapper;
     private final RefreshTokenRepository       refreshTokenRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
-    private final ActivityHistoryRepository    activityHistoryRepository;
     private final SearchHistoryRepository      searchHistoryRepository;
     private final FavoriteRepository           favoriteRepository;
     private final DocumentShareRepository      documentShareRepository;
@@ -277,7 +275,7 @@ public class UserService {
             passwordResetTokenRepository.deleteByUser_Id(targetId);
 
             // ── 2. Auditoría e historial ──────────────────────────────────────
-            activityHistoryRepository.deleteByUserId(targetId);
+            auditService.deleteLogsForUser(targetId);
             searchHistoryRepository.deleteByUser_Id(targetId);
 
             // ── 3. Favoritos ──────────────────────────────────────────────────
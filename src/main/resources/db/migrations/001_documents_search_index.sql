@@ -0,0 +1,22 @@
+-- Búsqueda full-text de documentos por nombre de archivo.
+-- Reemplaza el LIKE '%q%' sin índice de DocumentSpecification.search.
+-- Se aplica manualmente (spring.jpa.hibernate.ddl-auto=validate).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Columna generada: se mantiene sola en upload / rename / delete.
+-- Separadores típicos de nombres de archivo (_ - .) se tratan como espacios
+-- para que "Factura_2024_enero.pdf" produzca los tokens factura, 2024, enero, pdf.
+ALTER TABLE documents
+    ADD COLUMN IF NOT EXISTS search_vector tsvector
+        GENERATED ALWAYS AS (
+            to_tsvector('simple'::regconfig,
+                        translate(lower(coalesce(file_name, '')), '_-.', '   '))
+        ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_documents_search_vector
+    ON documents USING GIN (search_vector);
+
+-- Coincidencias por subcadena (LIKE '%q%') y ranking por similitud.
+CREATE INDEX IF NOT EXISTS idx_documents_file_name_trgm
+    ON documents USING GIN (lower(file_name) gin_trgm_ops);
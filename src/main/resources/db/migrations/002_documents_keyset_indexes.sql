@@ -0,0 +1,14 @@
+-- Índices para la paginación por cursor (keyset) de listados de documentos.
+-- Cada página es un range scan sobre (created_at, id) sin OFFSET ni COUNT(*).
+
+CREATE INDEX IF NOT EXISTS idx_documents_owner_created_id
+    ON documents (owner_user_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_documents_owner_status_created_id
+    ON documents (owner_user_id, status, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_documents_owner_folder_created_id
+    ON documents (owner_user_id, folder_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,5 @@
+-- Miniaturas generadas en el servidor tras completar el upload.
+-- Los listados apuntan a este objeto pequeño en lugar del original.
+
+ALTER TABLE documents
+    ADD COLUMN IF NOT EXISTS thumbnail_s3_key VARCHAR(1024);
@@ -0,0 +1,19 @@
+-- Cola persistente de clasificación: un job por documento pendiente.
+-- Si el classifier está caído el documento no pasa a FAILED; el job se
+-- reprograma con backoff exponencial y lo recoge el drenado periódico.
+
+CREATE TABLE IF NOT EXISTS classification_jobs (
+    id              BIGSERIAL PRIMARY KEY,
+    document_id     BIGINT       NOT NULL UNIQUE REFERENCES documents (id) ON DELETE CASCADE,
+    owner_user_id   BIGINT       NOT NULL,
+    file_name       VARCHAR(255) NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ  NOT NULL,
+    last_error      TEXT,
+    created_at      TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    updated_at      TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
+
+-- El drenado lee "los N más vencidos" con FOR UPDATE SKIP LOCKED
+CREATE INDEX IF NOT EXISTS idx_classification_jobs_next_attempt
+    ON classification_jobs (next_attempt_at);
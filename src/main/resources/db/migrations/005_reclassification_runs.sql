@@ -0,0 +1,34 @@
+-- Reclasificación masiva lanzada por un admin (p. ej. tras reentrenar el classifier).
+-- El cursor last_document_id se guarda en cada chunk: tras un reinicio se sigue
+-- desde ahí. Los documentos se encolan en classification_jobs (004).
+
+CREATE TABLE IF NOT EXISTS reclassification_runs (
+    id                   BIGSERIAL PRIMARY KEY,
+    target_user_id       BIGINT      NOT NULL,
+    requested_by_user_id BIGINT      NOT NULL,
+    status               VARCHAR(20) NOT NULL,
+    last_document_id     BIGINT      NOT NULL DEFAULT 0,
+    total_documents      BIGINT      NOT NULL DEFAULT 0,
+    enqueued_documents   BIGINT      NOT NULL DEFAULT 0,
+    started_at           TIMESTAMPTZ NOT NULL DEFAULT now(),
+    finished_at          TIMESTAMPTZ,
+    updated_at           TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Como mucho una ejecución activa por usuario
+CREATE UNIQUE INDEX IF NOT EXISTS uq_reclassification_runs_active_user
+    ON reclassification_runs (target_user_id)
+    WHERE status = 'RUNNING';
+
+CREATE INDEX IF NOT EXISTS idx_reclassification_runs_running
+    ON reclassification_runs (updated_at)
+    WHERE status = 'RUNNING';
+
+-- Pendientes por usuario (progreso de la reclasificación)
+CREATE INDEX IF NOT EXISTS idx_classification_jobs_owner
+    ON classification_jobs (owner_user_id);
+
+-- Cursor de la reclasificación: documentos de un usuario por id
+CREATE INDEX IF NOT EXISTS idx_documents_owner_id
+    ON documents (owner_user_id, id)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,28 @@
+-- Estadísticas de clasificación por usuario mantenidas incrementalmente.
+-- GET /api/categories/stats pasa de 4 COUNT(*) a leer una fila por PK.
+-- Las transiciones aplican deltas en la misma transacción; un job periódico
+-- recalcula desde documents/categories por si algún camino se quedó fuera.
+
+CREATE TABLE IF NOT EXISTS classification_stats (
+    user_id              BIGINT      PRIMARY KEY REFERENCES users (id) ON DELETE CASCADE,
+    total_documents      BIGINT      NOT NULL DEFAULT 0,
+    classified_documents BIGINT      NOT NULL DEFAULT 0,
+    failed_documents     BIGINT      NOT NULL DEFAULT 0,
+    categories_count     BIGINT      NOT NULL DEFAULT 0,
+    updated_at           TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Carga inicial (misma consulta que ClassificationStatsRepository.reconcile)
+INSERT INTO classification_stats
+    (user_id, total_documents, classified_documents, failed_documents, categories_count, updated_at)
+SELECT u.id,
+       (SELECT COUNT(*) FROM documents d
+         WHERE d.owner_user_id = u.id AND d.deleted_at IS NULL AND d.status <> 'DELETED'),
+       (SELECT COUNT(*) FROM documents d JOIN document_categories dc ON dc.document_id = d.id
+         WHERE d.owner_user_id = u.id AND d.deleted_at IS NULL AND d.status <> 'DELETED'),
+       (SELECT COUNT(*) FROM documents d
+         WHERE d.owner_user_id = u.id AND d.deleted_at IS NULL AND d.status = 'FAILED'),
+       (SELECT COUNT(*) FROM categories c WHERE c.owner_user_id = u.id),
+       now()
+FROM users u
+ON CONFLICT (user_id) DO NOTHING;
@@ -0,0 +1,79 @@
+-- activity_history particionada por mes sobre created_at.
+-- Las consultas del panel (ActivityHistorySpecification) filtran por rango de
+-- fechas y Postgres solo visita las particiones del rango; la retención pasa
+-- de DELETE masivo a DROP de particiones enteras (AuditPartitionMaintenance).
+--
+-- La tabla se recrea con la misma definición de columnas (LIKE) y se copian
+-- los datos. El id pasa a una secuencia propia: las columnas IDENTITY no
+-- están soportadas en tablas particionadas antes de Postgres 17.
+
+BEGIN;
+
+ALTER TABLE activity_history RENAME TO activity_history_legacy;
+
+UPDATE activity_history_legacy
+SET created_at = COALESCE(detailed_timestamp, now())
+WHERE created_at IS NULL;
+
+CREATE TABLE activity_history (LIKE activity_history_legacy INCLUDING DEFAULTS)
+    PARTITION BY RANGE (created_at);
+
+ALTER TABLE activity_history ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE activity_history ALTER COLUMN created_at SET DEFAULT now();
+
+CREATE SEQUENCE activity_history_part_id_seq AS INTEGER;
+SELECT setval('activity_history_part_id_seq',
+              COALESCE((SELECT MAX(id) FROM activity_history_legacy), 0) + 1, false);
+ALTER TABLE activity_history ALTER COLUMN id SET DEFAULT nextval('activity_history_part_id_seq');
+ALTER SEQUENCE activity_history_part_id_seq OWNED BY activity_history.id;
+
+-- La clave de partición tiene que formar parte de la PK
+ALTER TABLE activity_history ADD PRIMARY KEY (id, created_at);
+
+-- Índices en la tabla padre: se crean en cada partición automáticamente
+CREATE INDEX idx_activity_history_created_at ON activity_history (created_at);
+CREATE INDEX idx_activity_history_user_created ON activity_history (user_id, created_at);
+
+-- Crea (si falta) la partición mensual que contiene el día dado
+CREATE OR REPLACE FUNCTION ensure_activity_history_partition(p_day DATE) RETURNS TEXT AS $$
+DECLARE
+    v_from DATE := date_trunc('month', p_day)::DATE;
+    v_to   DATE := (date_trunc('month', p_day) + INTERVAL '1 month')::DATE;
+    v_name TEXT := 'activity_history_p' || to_char(v_from, 'YYYYMM');
+BEGIN
+    EXECUTE format(
+        'CREATE TABLE IF NOT EXISTS %I PARTITION OF activity_history FOR VALUES FROM (%L) TO (%L)',
+        v_name, v_from::TIMESTAMPTZ, v_to::TIMESTAMPTZ);
+    RETURN v_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Particiones para el histórico existente y los próximos meses
+SELECT ensure_activity_history_partition(m::DATE)
+FROM generate_series(
+        date_trunc('month', COALESCE((SELECT MIN(created_at) FROM activity_history_legacy), now())),
+        date_trunc('month', now()) + INTERVAL '3 months',
+        INTERVAL '1 month') AS m;
+
+INSERT INTO activity_history SELECT * FROM activity_history_legacy;
+
+DROP TABLE activity_history_legacy;
+
+-- Rollup diario para dashboards: una fila por (día, acción, tipo, éxito).
+-- Sobrevive a la retención de activity_history.
+CREATE TABLE IF NOT EXISTS activity_history_daily (
+    day           DATE         NOT NULL,
+    action        VARCHAR(100) NOT NULL,
+    resource_type VARCHAR(50)  NOT NULL DEFAULT '',
+    is_successful BOOLEAN      NOT NULL,
+    events        BIGINT       NOT NULL,
+    PRIMARY KEY (day, action, resource_type, is_successful)
+);
+
+INSERT INTO activity_history_daily (day, action, resource_type, is_successful, events)
+SELECT (created_at AT TIME ZONE 'UTC')::DATE, action, COALESCE(resource_type, ''),
+       COALESCE(is_successful, TRUE), COUNT(*)
+FROM activity_history
+GROUP BY 1, 2, 3, 4;
+
+COMMIT;
@@ -0,0 +1,13 @@
+-- Contadores de auditoría por día (UTC) para /api/admin/audit/stats.
+-- total/failed son exactos; user_hll es un HyperLogLog (2^12 registros de
+-- 1 byte) con los user_id del día: la unión de varios días se obtiene
+-- tomando el máximo por registro, así que cualquier rango es O(días).
+-- Los días ya existentes los rellena AuditCounterService al arrancar.
+
+CREATE TABLE IF NOT EXISTS audit_daily_counters (
+    day           DATE        PRIMARY KEY,
+    total_events  BIGINT      NOT NULL DEFAULT 0,
+    failed_events BIGINT      NOT NULL DEFAULT 0,
+    user_hll      BYTEA       NOT NULL,
+    updated_at    TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,6 @@
+-- Paginación por cursor de /documents/failed: mismo orden que su modo offset
+-- (updated_at DESC, id DESC), es decir, los fallos más recientes primero.
+
+CREATE INDEX IF NOT EXISTS idx_documents_owner_status_updated_id
+    ON documents (owner_user_id, status, updated_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,126 @@
+package com.docucloud.backend.documents.repository;
+
+import com.docucloud.backend.documents.model.Category;
+import com.docucloud.backend.documents.model.Document;
+import com.docucloud.backend.documents.model.DocumentCategory;
+import com.docucloud.backend.documents.model.DocumentStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * La búsqueda carga classification + category con un número fijo de
+ * sentencias (ids ordenados y después entidades con el grafo
+ * Document.withClassification), sin un SELECT extra por documento. Cuenta
+ * las sentencias con las estadísticas de Hibernate. El listado se comprueba
+ * en DocumentServiceListStatementCountTest.
+ *
+ * Necesita Docker (Postgres real: la búsqueda usa tsvector y pg_trgm); sin
+ * Docker el test se omite.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Sql(scripts = "classpath:db/migrations/001_documents_search_index.sql")
+class DocumentRepositoryStatementCountTest {
+
+    private static final long OWNER_ID = 1L;
+    private static final int DOCUMENTS = 15;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private DocumentRepository repo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setOwnerUserId(OWNER_ID);
+        category.setName("Facturas");
+        category.setColor("#336699");
+        em.persist(category);
+
+        for (int i = 0; i < DOCUMENTS; i++) {
+            Document doc = new Document();
+            doc.setOwnerUserId(OWNER_ID);
+            doc.setFileName("factura_" + i + ".pdf");
+            doc.setMimeType("application/pdf");
+            doc.setSizeBytes(1024L);
+            doc.setS3Bucket("bucket");
+            doc.setS3Key("users/1/factura_" + i + ".pdf");
+            doc.setStatus(DocumentStatus.AVAILABLE);
+            em.persist(doc);
+
+            em.persist(DocumentCategory.builder()
+                    .document(doc)
+                    .category(category)
+                    .isAutomaticallyAssigned(true)
+                    .confidenceScore(new BigDecimal("0.9500"))
+                    .build());
+        }
+        em.flush();
+        em.clear();
+
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void searchLoadsClassificationWithoutNPlusOne() {
+        Page<Long> ids = repo.searchRankedIds(
+                OWNER_ID,
+                DocumentSearchQuery.toPrefixTsQuery("factura"),
+                DocumentSearchQuery.toLikePattern("factura"),
+                "factura",
+                "",
+                "",
+                Instant.EPOCH,
+                Instant.parse("9999-12-31T00:00:00Z"),
+                PageRequest.of(0, 10));
+        List<Document> docs = repo.findWithClassificationByIdIn(ids.getContent());
+
+        touchClassification(docs);
+
+        assertThat(docs).hasSize(10);
+        // IDs ordenados + COUNT + entidades con el grafo
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    private static void touchClassification(List<Document> docs) {
+        for (Document doc : docs) {
+            assertThat(doc.getClassification()).isNotNull();
+            assertThat(doc.getClassification().getCategory().getName()).isEqualTo("Facturas");
+        }
+    }
+}
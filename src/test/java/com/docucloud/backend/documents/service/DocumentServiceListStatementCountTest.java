@@ -0,0 +1,152 @@
+package com.docucloud.backend.documents.service;
+
+import com.docucloud.backend.audit.service.AuditService;
+import com.docucloud.backend.documents.dto.response.DocumentResponse;
+import com.docucloud.backend.documents.model.Category;
+import com.docucloud.backend.documents.model.Document;
+import com.docucloud.backend.documents.model.DocumentCategory;
+import com.docucloud.backend.documents.model.DocumentStatus;
+import com.docucloud.backend.documents.model.DocumentTag;
+import com.docucloud.backend.favorites.service.FavoriteService;
+import com.docucloud.backend.storage.s3.service.S3KeyService;
+import com.docucloud.backend.storage.s3.service.S3ObjectService;
+import com.docucloud.backend.storage.s3.service.S3PresignService;
+import com.docucloud.backend.tags.model.Tag;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listado de documentos tal como lo sirve la API (DocumentService →
+ * DocumentReadRepository + tags en batch): el número de sentencias no crece
+ * con el tamaño de la página. Cuenta las sentencias con las estadísticas de
+ * Hibernate sobre la base embebida (las consultas son JPQL portable).
+ * También el detalle de un documento, que sí pasa por la entidad.
+ */
+@DataJpaTest
+@Import({DocumentService.class, DocumentCountCache.class})
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "docucloud.aws.s3.bucket=test-bucket"
+})
+class DocumentServiceListStatementCountTest {
+
+    private static final long OWNER_ID = 1L;
+    private static final int DOCUMENTS = 15;
+    private static final int PAGE_SIZE = 10;
+
+    @MockBean private ClassificationBatcher classificationBatcher;
+    @MockBean private ClassificationJobService classificationJobService;
+    @MockBean private ThumbnailService thumbnailService;
+    @MockBean private S3KeyService keyService;
+    @MockBean private S3PresignService presignService;
+    @MockBean private S3ObjectService objectService;
+    @MockBean private FavoriteService favoriteService;
+    @MockBean private ClassificationStatsService statsService;
+    @MockBean private AuditService auditService;
+    @MockBean private ObjectMapper objectMapper;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private Statistics statistics;
+    private Long firstDocumentId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setOwnerUserId(OWNER_ID);
+        category.setName("Facturas");
+        category.setColor("#336699");
+        em.persist(category);
+
+        Tag urgent = new Tag();
+        urgent.setName("urgente");
+        urgent.setUserId(OWNER_ID);
+        em.persist(urgent);
+        Tag paid = new Tag();
+        paid.setName("pagada");
+        paid.setUserId(OWNER_ID);
+        em.persist(paid);
+
+        for (int i = 0; i < DOCUMENTS; i++) {
+            Document doc = new Document();
+            doc.setOwnerUserId(OWNER_ID);
+            doc.setFileName("factura_" + i + ".pdf");
+            doc.setMimeType("application/pdf");
+            doc.setSizeBytes(1024L);
+            doc.setS3Bucket("test-bucket");
+            doc.setS3Key("users/1/factura_" + i + ".pdf");
+            doc.setStatus(DocumentStatus.AVAILABLE);
+            em.persist(doc);
+            if (firstDocumentId == null) firstDocumentId = doc.getId();
+
+            em.persist(DocumentCategory.builder()
+                    .document(doc)
+                    .category(category)
+                    .isAutomaticallyAssigned(true)
+                    .confidenceScore(new BigDecimal("0.9500"))
+                    .build());
+            em.persist(DocumentTag.builder().document(doc).tag(urgent).build());
+            em.persist(DocumentTag.builder().document(doc).tag(paid).build());
+        }
+        em.flush();
+        em.clear();
+
+        statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listWithFavoritesUsesConstantStatements() {
+        Slice<DocumentResponse> page = documentService.listWithFavorites(
+                OWNER_ID, PageRequest.of(0, PAGE_SIZE), false);
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getContent()).allSatisfy(r -> {
+            assertThat(r.categoryName()).isEqualTo("Facturas");
+            assertThat(r.tagNames()).containsExactly("pagada", "urgente");
+        });
+        // Filas (documento + categoría + favorito) + tags del lote
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void totalIsCountedOnceAndThenCached() {
+        documentService.listWithFavorites(OWNER_ID, PageRequest.of(0, PAGE_SIZE), true);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        statistics.clear();
+        documentService.listWithFavorites(OWNER_ID, PageRequest.of(1, PAGE_SIZE), true);
+        // Segunda página: el COUNT sale de DocumentCountCache
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void documentDetailLoadsCategoryInTheSameSelect() {
+        DocumentResponse response = documentService.getDocumentResponseById(OWNER_ID, firstDocumentId);
+
+        assertThat(response.categoryName()).isEqualTo("Facturas");
+        // Clasificación y categoría llegan en el SELECT del documento: ningún fetch aparte
+        assertThat(statistics.getEntityStatistics(DocumentCategory.class.getName()).getFetchCount()).isZero();
+        assertThat(statistics.getEntityStatistics(Category.class.getName()).getFetchCount()).isZero();
+    }
+}